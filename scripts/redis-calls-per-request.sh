@@ -0,0 +1,44 @@
+#!/usr/bin/env bash
+# 统计每个请求产生的Redis命令数：压测前后读取Redis的total_commands_processed求差
+# 在改动前后的版本上分别运行即可对比会话查询带来的Redis往返
+#
+# 用法：
+#   scripts/redis-calls-per-request.sh
+#
+# 环境变量：
+#   BASE_URL    服务地址，默认http://localhost:8080
+#   REQUESTS    每个路径的请求数，默认1000
+#   TOKEN       管理接口使用的JWT，未设置时跳过管理接口
+#   REDIS_CLI   redis-cli命令，默认redis-cli
+set -euo pipefail
+
+BASE_URL="${BASE_URL:-http://localhost:8080}"
+REQUESTS="${REQUESTS:-1000}"
+TOKEN="${TOKEN:-}"
+REDIS_CLI="${REDIS_CLI:-redis-cli}"
+
+commands_processed() {
+    $REDIS_CLI INFO stats | awk -F: '/^total_commands_processed/ { print $2 }' | tr -d '\r'
+}
+
+measure() {
+    local label="$1"
+    shift
+    local before after
+    before=$(commands_processed)
+    for _ in $(seq 1 "$REQUESTS"); do
+        curl -s -o /dev/null "$@"
+    done
+    after=$(commands_processed)
+    # 扣除两次INFO命令本身
+    local calls=$((after - before - 1))
+    awk -v label="$label" -v calls="$calls" -v n="$REQUESTS" \
+        'BEGIN { printf "%-12s Redis命令 %6d 次，每请求 %.3f 次\n", label, calls, calls / n }'
+}
+
+measure "resolve" "$BASE_URL/api/shortlink/resolve/abc123"
+measure "validate" "$BASE_URL/api/shortlink/validate/abc123"
+
+if [ -n "$TOKEN" ]; then
+    measure "stats" -H "Authorization: Bearer $TOKEN" "$BASE_URL/api/shortlink/stats"
+fi
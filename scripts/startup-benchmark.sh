@@ -0,0 +1,79 @@
+#!/usr/bin/env bash
+# 启动基准测试：统计从进程启动到readiness探针就绪、以及到第一次成功解析短链接的耗时
+#
+# 脚本会生成一个只包含一个已知编码的热点快照，启动时通过快照预热加载，
+# 之后解析该编码，响应体中success为true才算成功
+#
+# 用法：
+#   scripts/startup-benchmark.sh standard   # 普通jar：target/ShortLink-0.0.1-SNAPSHOT.jar
+#   scripts/startup-benchmark.sh fast       # mvn -Pfast-startup package 生成的AOT + AppCDS版本
+#
+# 环境变量：
+#   PORT        监听端口，默认8080
+#   SEED_CODE   预置的短链接编码，默认bench1
+#   RUNS        重复次数，默认5
+set -euo pipefail
+
+MODE="${1:-standard}"
+PORT="${PORT:-8080}"
+SEED_CODE="${SEED_CODE:-bench1}"
+SEED_URL="https://www.example.com/startup-benchmark"
+RUNS="${RUNS:-5}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+JAR_NAME="ShortLink-0.0.1-SNAPSHOT.jar"
+
+case "$MODE" in
+    standard)
+        WORK_DIR="$ROOT/target"
+        JAVA_ARGS=(-jar "$JAR_NAME")
+        ;;
+    fast)
+        WORK_DIR="$ROOT/target/fast-startup"
+        JAVA_ARGS=(-XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar "$JAR_NAME")
+        ;;
+    *)
+        echo "未知模式: $MODE（可选 standard / fast）" >&2
+        exit 1
+        ;;
+esac
+
+now_ms() {
+    date +%s%3N
+}
+
+# 解析成功时响应体包含"success":true，未命中或格式无效时为false
+resolved() {
+    curl -s "http://localhost:$PORT/api/shortlink/resolve/$SEED_CODE" 2>/dev/null | grep -q '"success":true'
+}
+
+SNAPSHOT="$(mktemp --suffix=.gz)"
+trap 'rm -f "$SNAPSHOT"' EXIT
+
+for run in $(seq 1 "$RUNS"); do
+    # 每轮重新生成快照，上一轮停机时保存的快照会覆盖该文件
+    printf '%s\t%s\n' "$SEED_CODE" "$SEED_URL" | gzip > "$SNAPSHOT"
+
+    cd "$WORK_DIR"
+    start=$(now_ms)
+    java "${JAVA_ARGS[@]}" --server.port="$PORT" \
+        --shortlink.warmup.snapshot-enabled=true \
+        --shortlink.warmup.snapshot-file="$SNAPSHOT" > /dev/null 2>&1 &
+    pid=$!
+    trap 'kill $pid 2>/dev/null || true; rm -f "$SNAPSHOT"' EXIT
+
+    until curl -sf "http://localhost:$PORT/actuator/health/readiness" > /dev/null; do
+        sleep 0.01
+    done
+    ready=$(now_ms)
+
+    until resolved; do
+        sleep 0.01
+    done
+    first=$(now_ms)
+
+    echo "[$MODE] 第 $run 次: readiness就绪 $((ready - start))ms, 首次成功解析 $((first - start))ms"
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap 'rm -f "$SNAPSHOT"' EXIT
+done
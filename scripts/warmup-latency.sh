@@ -0,0 +1,88 @@
+#!/usr/bin/env bash
+# 启动后第一分钟的解析延迟曲线：对比开启/关闭热点快照预热时每10秒窗口的p99延迟
+#
+# 本地缓存未命中时从Redis中的LinkStore加载，因此关闭预热时冷节点的请求会穿透到Redis，
+# 开启预热时热点编码在就绪前已经在本地缓存中，两条曲线的差异即为预热的效果
+#
+# 用法（需本地Redis，并先运行过一段时间，使data/hot-links.snapshot.gz中有热点快照、
+# 且快照中的编码已写入同一个Redis）：
+#   scripts/warmup-latency.sh
+#
+# 环境变量：
+#   PORT      监听端口，默认8080
+#   DURATION  每轮压测秒数，默认60
+#   WINDOW    统计窗口秒数，默认10
+set -euo pipefail
+
+PORT="${PORT:-8080}"
+DURATION="${DURATION:-60}"
+WINDOW="${WINDOW:-10}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+JAR="$ROOT/target/ShortLink-0.0.1-SNAPSHOT.jar"
+SNAPSHOT="$ROOT/data/hot-links.snapshot.gz"
+
+if [ ! -f "$SNAPSHOT" ]; then
+    echo "未找到热点快照: $SNAPSHOT" >&2
+    exit 1
+fi
+
+CODES=()
+while IFS= read -r code; do
+    CODES+=("$code")
+done < <(zcat "$SNAPSHOT" | cut -f1)
+
+run() {
+    local label="$1"
+    local enabled="$2"
+    local samples
+    samples="$(mktemp)"
+
+    # 使用快照副本，避免本轮停机时覆盖原快照
+    local snapshot_copy
+    snapshot_copy="$(mktemp --suffix=.gz)"
+    cp "$SNAPSHOT" "$snapshot_copy"
+
+    java -jar "$JAR" --server.port="$PORT" \
+        --shortlink.link-store=redis \
+        --shortlink.warmup.snapshot-enabled="$enabled" \
+        --shortlink.warmup.snapshot-file="$snapshot_copy" > /dev/null 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null || true' EXIT
+
+    until curl -sf "http://localhost:$PORT/actuator/health/readiness" > /dev/null; do
+        sleep 0.01
+    done
+
+    local start end now
+    start=$(date +%s)
+    end=$((start + DURATION))
+    local i=0
+    while [ "$(date +%s)" -lt "$end" ]; do
+        local code="${CODES[$((i % ${#CODES[@]}))]}"
+        now=$(date +%s)
+        curl -s -o /dev/null -w "$((now - start)) %{time_total}\n" \
+            "http://localhost:$PORT/api/shortlink/resolve/$code" >> "$samples"
+        i=$((i + 1))
+    done
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+
+    echo "== $label =="
+    awk -v window="$WINDOW" '{ print int($1 / window) * window, $2 * 1000 }' "$samples" \
+        | sort -k1,1n -k2,2n \
+        | awk '{ bucket[$1] = bucket[$1] " " $2; count[$1]++ }
+               END {
+                   for (b in count) {
+                       n = split(substr(bucket[b], 2), values, " ");
+                       idx = int(n * 0.99); if (idx < 1) idx = 1;
+                       printf "%4ds-%4ds  请求数 %6d  p99 %.2fms\n", b, b + '"$WINDOW"', n, values[idx];
+                   }
+               }' \
+        | sort -n
+    rm -f "$samples" "$snapshot_copy"
+}
+
+run "关闭预热" false
+run "开启预热" true
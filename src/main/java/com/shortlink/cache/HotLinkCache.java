@@ -0,0 +1,144 @@
+package com.shortlink.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地短链接缓存
+ * 保存短链接编码到原始URL的映射，并记录每个编码的访问次数，用于生成热点快照。
+ * 缓存只是LinkStore的副本，被淘汰的编码在下次解析时会从LinkStore重新加载。
+ * 容量满时采用近似LFU淘汰：从所有条目中随机抽样若干个，淘汰其中访问次数最少的一个
+ */
+@Component
+public class HotLinkCache {
+
+    // 每次淘汰时随机抽样的条目数
+    private static final int EVICTION_SAMPLE_SIZE = 8;
+
+    private final ConcurrentHashMap<String, CacheEntry> entries = new ConcurrentHashMap<>();
+    // 按槽位保存编码，用于等概率随机抽样，写入时加锁维护
+    private final String[] slots;
+    private final int maxSize;
+    private int size;
+
+    public HotLinkCache(@Value("${shortlink.cache.max-size:100000}") int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("缓存容量必须大于0: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.slots = new String[maxSize];
+    }
+
+    /**
+     * 查询原始URL并累加访问次数
+     * @param shortCode 短链接编码
+     * @return 原始URL，不存在时返回null
+     */
+    public String get(String shortCode) {
+        CacheEntry entry = entries.get(shortCode);
+        if (entry == null) {
+            return null;
+        }
+        entry.hits.incrementAndGet();
+        return entry.originalUrl;
+    }
+
+    /**
+     * 写入映射，已存在且URL相同时保留原有访问次数
+     * 写入时加锁，保证条目数不会超过容量
+     * @param shortCode 短链接编码
+     * @param originalUrl 原始URL
+     */
+    public synchronized void put(String shortCode, String originalUrl) {
+        putLocked(shortCode, originalUrl);
+    }
+
+    /**
+     * 批量写入映射，只加一次锁，用于启动时加载热点快照
+     * @param links 编码到原始URL的映射
+     */
+    public synchronized void putAll(Map<String, String> links) {
+        for (Map.Entry<String, String> link : links.entrySet()) {
+            putLocked(link.getKey(), link.getValue());
+        }
+    }
+
+    /**
+     * 获取访问次数最多的编码
+     * @param limit 最大数量
+     * @return 按访问次数降序排列的编码到原始URL的映射
+     */
+    public Map<String, String> hottest(int limit) {
+        Map<String, String> result = new LinkedHashMap<>();
+        entries.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, CacheEntry> e) -> e.getValue().hits.get()).reversed())
+                .limit(limit)
+                .forEach(e -> result.put(e.getKey(), e.getValue().originalUrl));
+        return result;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 写入单个映射，调用方需持有锁
+     */
+    private void putLocked(String shortCode, String originalUrl) {
+        CacheEntry old = entries.get(shortCode);
+        if (old != null) {
+            if (!old.originalUrl.equals(originalUrl)) {
+                entries.put(shortCode, new CacheEntry(originalUrl, old.slot));
+            }
+            return;
+        }
+
+        int slot;
+        if (size < maxSize) {
+            slot = size++;
+        } else {
+            slot = sampleColdestSlot();
+            entries.remove(slots[slot]);
+        }
+        slots[slot] = shortCode;
+        entries.put(shortCode, new CacheEntry(originalUrl, slot));
+    }
+
+    /**
+     * 随机抽样若干槽位，返回访问次数最少的一个，调用方需持有锁
+     * @return 槽位下标
+     */
+    private int sampleColdestSlot() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int coldest = -1;
+        long coldestHits = Long.MAX_VALUE;
+        for (int i = 0; i < EVICTION_SAMPLE_SIZE; i++) {
+            int slot = random.nextInt(size);
+            long hits = entries.get(slots[slot]).hits.get();
+            if (hits < coldestHits) {
+                coldest = slot;
+                coldestHits = hits;
+            }
+        }
+        return coldest;
+    }
+
+    private static class CacheEntry {
+        private final String originalUrl;
+        private final int slot;
+        private final AtomicLong hits = new AtomicLong();
+
+        private CacheEntry(String originalUrl, int slot) {
+            this.originalUrl = originalUrl;
+            this.slot = slot;
+        }
+    }
+}
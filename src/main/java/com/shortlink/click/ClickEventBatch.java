@@ -0,0 +1,69 @@
+package com.shortlink.click;
+
+/**
+ * 点击事件批次
+ * 按列存放同一批事件，便于导出时逐列压缩
+ */
+public class ClickEventBatch {
+
+    private final long[] timestamps;
+    private final String[] shortCodes;
+    private final String[] referrers;
+    private final int[] userAgentHashes;
+    private int size;
+
+    public ClickEventBatch(int capacity) {
+        this.timestamps = new long[capacity];
+        this.shortCodes = new String[capacity];
+        this.referrers = new String[capacity];
+        this.userAgentHashes = new int[capacity];
+    }
+
+    void add(long timestamp, String shortCode, String referrer, int userAgentHash) {
+        timestamps[size] = timestamp;
+        shortCodes[size] = shortCode;
+        referrers[size] = referrer;
+        userAgentHashes[size] = userAgentHash;
+        size++;
+    }
+
+    public long getTimestamp(int index) {
+        return timestamps[index];
+    }
+
+    public String getShortCode(int index) {
+        return shortCodes[index];
+    }
+
+    public String getReferrer(int index) {
+        return referrers[index];
+    }
+
+    public int getUserAgentHash(int index) {
+        return userAgentHashes[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int remaining() {
+        return timestamps.length - size;
+    }
+
+    public boolean isFull() {
+        return size == timestamps.length;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            shortCodes[i] = null;
+            referrers[i] = null;
+        }
+        size = 0;
+    }
+}
@@ -0,0 +1,124 @@
+package com.shortlink.click;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 点击事件环形缓冲区
+ * 多生产者、单消费者的无锁有界队列：槽位预先分配并循环复用，生产者通过CAS申请序号，
+ * 写完槽位后发布该序号；缓冲区满时直接丢弃并计数，不会阻塞跳转请求
+ */
+public class ClickEventBuffer {
+
+    private final Slot[] slots;
+    private final int mask;
+    // 每个槽位最近一次发布的序号，消费者据此判断槽位是否已写完
+    private final AtomicLongArray published;
+    // 下一个可申请的序号
+    private final AtomicLong claimSequence = new AtomicLong();
+    // 下一个待消费的序号，只由消费者线程推进
+    private final AtomicLong consumeSequence = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param capacity 缓冲区容量，向上取整为2的幂
+     */
+    public ClickEventBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("缓冲区容量必须大于0: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new Slot[size];
+        this.mask = size - 1;
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * 发布一个点击事件
+     * @param timestamp 点击时间戳
+     * @param shortCode 短链接编码
+     * @param referrer 来源页面
+     * @param userAgentHash User-Agent哈希值
+     * @return 是否成功写入，缓冲区满时返回false
+     */
+    public boolean offer(long timestamp, String shortCode, String referrer, int userAgentHash) {
+        long sequence;
+        do {
+            sequence = claimSequence.get();
+            if (sequence - consumeSequence.get() >= slots.length) {
+                dropped.increment();
+                return false;
+            }
+        } while (!claimSequence.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) sequence & mask;
+        Slot slot = slots[index];
+        slot.timestamp = timestamp;
+        slot.shortCode = shortCode;
+        slot.referrer = referrer;
+        slot.userAgentHash = userAgentHash;
+        published.lazySet(index, sequence);
+        return true;
+    }
+
+    /**
+     * 把已发布的事件转移到批次中，只能由消费者线程调用
+     * @param batch 目标批次
+     * @param maxEvents 最多转移的事件数
+     * @return 转移的事件数
+     */
+    public int drainTo(ClickEventBatch batch, int maxEvents) {
+        long sequence = consumeSequence.get();
+        int drained = 0;
+        while (drained < maxEvents) {
+            int index = (int) sequence & mask;
+            if (published.get(index) != sequence) {
+                break;
+            }
+            Slot slot = slots[index];
+            batch.add(slot.timestamp, slot.shortCode, slot.referrer, slot.userAgentHash);
+            slot.shortCode = null;
+            slot.referrer = null;
+            sequence++;
+            drained++;
+        }
+        if (drained > 0) {
+            consumeSequence.lazySet(sequence);
+        }
+        return drained;
+    }
+
+    /**
+     * 是否还有已申请但未消费的事件
+     * @return 是否有待消费事件
+     */
+    public boolean hasPending() {
+        return claimSequence.get() > consumeSequence.get();
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * 预分配的事件槽位
+     */
+    private static class Slot {
+        private long timestamp;
+        private String shortCode;
+        private String referrer;
+        private int userAgentHash;
+    }
+}
@@ -0,0 +1,192 @@
+package com.shortlink.click;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 点击事件记录器
+ * 跳转路径只把事件写入环形缓冲区，由后台消费者线程攒批后交给导出目标，
+ * 缓冲区满时丢弃事件并计数，保证跳转延迟不受导出速度影响。
+ * 导出目标只由消费者线程访问，包括在线程退出前关闭它
+ */
+public class ClickEventRecorder implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ClickEventRecorder.class);
+
+    private static final int MAX_REFERRER_LENGTH = 512; // 来源页面最大长度
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long STOP_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    // 比Web服务器更早启动、更晚停止，停机过程中仍在处理的请求也能记录点击
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final ClickEventBuffer buffer;
+    private final ClickEventSink sink;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder exported = new LongAdder();
+    private final LongAdder exportFailures = new LongAdder();
+
+    private volatile Thread consumer;
+    private volatile boolean running;
+
+    public ClickEventRecorder(ClickEventSink sink, int capacity, int batchSize, long flushIntervalMillis) {
+        this.buffer = new ClickEventBuffer(capacity);
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    /**
+     * 启动后台消费者线程
+     */
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        consumer = new Thread(this::consume, "click-event-exporter");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @Override
+    public void stop() {
+        close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * 记录一次点击，不会阻塞
+     * @param shortCode 短链接编码
+     * @param referrer 来源页面，可为null
+     * @param userAgent User-Agent，可为null
+     * @return 是否成功写入缓冲区
+     */
+    public boolean record(String shortCode, String referrer, String userAgent) {
+        if (referrer != null && referrer.length() > MAX_REFERRER_LENGTH) {
+            referrer = referrer.substring(0, MAX_REFERRER_LENGTH);
+        }
+        int userAgentHash = userAgent == null ? 0 : userAgent.hashCode();
+        boolean accepted = buffer.offer(System.currentTimeMillis(), shortCode, referrer, userAgentHash);
+        if (accepted) {
+            recorded.increment();
+        }
+        return accepted;
+    }
+
+    /**
+     * 停止消费者线程，由消费者导出剩余事件后关闭导出目标
+     * 超时后消费者线程可能仍在导出，此时不在当前线程关闭导出目标，避免与消费者并发访问
+     */
+    public synchronized void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        Thread thread = consumer;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            log.warn("点击事件消费者线程在 {}ms 内未退出，剩余事件将在后台继续导出", STOP_TIMEOUT_MILLIS);
+        }
+    }
+
+    public long getRecordedCount() {
+        return recorded.sum();
+    }
+
+    public long getDroppedCount() {
+        return buffer.getDroppedCount();
+    }
+
+    public long getExportedCount() {
+        return exported.sum();
+    }
+
+    /**
+     * 获取点击事件统计信息
+     * @return 统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("bufferCapacity", buffer.getCapacity());
+        stats.put("recorded", getRecordedCount());
+        stats.put("dropped", getDroppedCount());
+        stats.put("exported", getExportedCount());
+        stats.put("exportFailures", exportFailures.sum());
+        return stats;
+    }
+
+    private void consume() {
+        ClickEventBatch batch = new ClickEventBatch(batchSize);
+        long lastFlush = System.currentTimeMillis();
+
+        while (running || buffer.hasPending()) {
+            int drained = buffer.drainTo(batch, batch.remaining());
+            long now = System.currentTimeMillis();
+            if (batch.isFull() || (!batch.isEmpty() && now - lastFlush >= flushIntervalMillis)) {
+                flush(batch);
+                lastFlush = now;
+            } else if (batch.isEmpty()) {
+                lastFlush = now;
+            }
+            if (drained == 0 && running) {
+                tick();
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        flush(batch);
+
+        try {
+            sink.close();
+        } catch (IOException e) {
+            log.warn("关闭点击事件导出目标失败", e);
+        }
+    }
+
+    private void tick() {
+        try {
+            sink.tick();
+        } catch (IOException | RuntimeException e) {
+            log.warn("点击事件导出目标维护失败", e);
+        }
+    }
+
+    private void flush(ClickEventBatch batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            sink.write(batch);
+            exported.add(batch.size());
+        } catch (IOException | RuntimeException e) {
+            exportFailures.add(batch.size());
+            log.warn("导出点击事件失败，丢弃 {} 条", batch.size(), e);
+        }
+        batch.clear();
+    }
+}
@@ -0,0 +1,30 @@
+package com.shortlink.click;
+
+import java.io.IOException;
+
+/**
+ * 点击事件导出目标
+ * 只会被消费者线程调用，实现类无需考虑并发
+ */
+public interface ClickEventSink {
+
+    /**
+     * 导出一个批次
+     * @param batch 点击事件批次
+     * @throws IOException 导出失败
+     */
+    void write(ClickEventBatch batch) throws IOException;
+
+    /**
+     * 消费者线程空闲时定期调用，用于按时间滚动等维护工作
+     * @throws IOException 维护失败
+     */
+    default void tick() throws IOException {
+    }
+
+    /**
+     * 关闭导出目标，释放资源
+     * @throws IOException 关闭失败
+     */
+    void close() throws IOException;
+}
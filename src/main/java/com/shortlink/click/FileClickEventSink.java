@@ -0,0 +1,146 @@
+package com.shortlink.click;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 文件导出目标
+ * 每个批次按列写入：事件数、时间戳（相邻差值）、编码、来源页面、User-Agent哈希，整个文件使用gzip压缩。
+ * 文件超过指定大小或时长后滚动，写入中的文件以.tmp结尾，滚动时重命名为正式文件。
+ * 写入中途失败时文件里会留下不完整的批次，之后的批次无法解析，因此把该文件隔离为.corrupt，下一个批次写入新文件
+ */
+public class FileClickEventSink implements ClickEventSink {
+
+    private static final String FILE_PREFIX = "clicks-";
+    private static final String FILE_SUFFIX = ".bin.gz";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String CORRUPT_SUFFIX = ".corrupt";
+    private static final DateTimeFormatter FILE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final Path directory;
+    private final long maxFileBytes;
+    private final long rollIntervalMillis;
+
+    private DataOutputStream out;
+    private Path currentFile;
+    private long currentFileOpenedAt;
+
+    public FileClickEventSink(Path directory, long maxFileBytes, long rollIntervalMillis) {
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.rollIntervalMillis = rollIntervalMillis;
+    }
+
+    @Override
+    public void write(ClickEventBatch batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (out != null && shouldRoll()) {
+            closeCurrentFile();
+        }
+        if (out == null) {
+            openFile();
+        }
+
+        try {
+            writeBatch(batch);
+        } catch (IOException e) {
+            quarantineCurrentFile();
+            throw e;
+        }
+    }
+
+    @Override
+    public void tick() throws IOException {
+        if (out != null && System.currentTimeMillis() - currentFileOpenedAt >= rollIntervalMillis) {
+            closeCurrentFile();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            closeCurrentFile();
+        }
+    }
+
+    private void writeBatch(ClickEventBatch batch) throws IOException {
+        int size = batch.size();
+        out.writeInt(size);
+
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            long timestamp = batch.getTimestamp(i);
+            out.writeLong(timestamp - previous);
+            previous = timestamp;
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeUTF(batch.getShortCode(i));
+        }
+        for (int i = 0; i < size; i++) {
+            String referrer = batch.getReferrer(i);
+            out.writeUTF(referrer == null ? "" : referrer);
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeInt(batch.getUserAgentHash(i));
+        }
+    }
+
+    private boolean shouldRoll() {
+        // DataOutputStream.size()为压缩前的字节数
+        return out.size() >= maxFileBytes
+                || System.currentTimeMillis() - currentFileOpenedAt >= rollIntervalMillis;
+    }
+
+    private void openFile() throws IOException {
+        Files.createDirectories(directory);
+        String name = FILE_PREFIX + LocalDateTime.now().format(FILE_TIME_FORMAT) + FILE_SUFFIX;
+        currentFile = directory.resolve(name);
+        out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(tempFile(currentFile)))));
+        currentFileOpenedAt = System.currentTimeMillis();
+    }
+
+    private void closeCurrentFile() throws IOException {
+        try {
+            out.close();
+            Files.move(tempFile(currentFile), currentFile, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            out = null;
+            currentFile = null;
+        }
+    }
+
+    /**
+     * 关闭并隔离当前文件，忽略关闭时的异常
+     */
+    private void quarantineCurrentFile() {
+        Path temp = tempFile(currentFile);
+        try {
+            out.close();
+        } catch (IOException ignored) {
+            // 文件已经损坏，关闭失败不影响隔离
+        }
+        try {
+            Files.move(temp, temp.resolveSibling(currentFile.getFileName() + CORRUPT_SUFFIX),
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ignored) {
+            // 隔离失败时保留.tmp文件，不影响后续写入新文件
+        } finally {
+            out = null;
+            currentFile = null;
+        }
+    }
+
+    private static Path tempFile(Path file) {
+        return file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+    }
+}
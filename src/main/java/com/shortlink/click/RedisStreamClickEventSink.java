@@ -0,0 +1,57 @@
+package com.shortlink.click;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Redis Streams导出目标
+ * 每个批次通过一次pipeline写入，写完后按近似长度裁剪Stream
+ */
+public class RedisStreamClickEventSink implements ClickEventSink {
+
+    private final StringRedisTemplate redisTemplate;
+    private final String streamKey;
+    private final long maxLength;
+
+    public RedisStreamClickEventSink(StringRedisTemplate redisTemplate, String streamKey, long maxLength) {
+        this.redisTemplate = redisTemplate;
+        this.streamKey = streamKey;
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public void write(ClickEventBatch batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                for (int i = 0; i < batch.size(); i++) {
+                    Map<String, String> fields = new HashMap<>();
+                    fields.put("ts", String.valueOf(batch.getTimestamp(i)));
+                    fields.put("code", batch.getShortCode(i));
+                    String referrer = batch.getReferrer(i);
+                    fields.put("ref", referrer == null ? "" : referrer);
+                    fields.put("ua", String.valueOf(batch.getUserAgentHash(i)));
+                    stringOperations.opsForStream().add(StreamRecords.string(fields).withStreamKey(streamKey));
+                }
+                stringOperations.opsForStream().trim(streamKey, maxLength, true);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        // 连接由Spring管理
+    }
+}
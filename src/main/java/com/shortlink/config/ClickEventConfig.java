@@ -0,0 +1,52 @@
+package com.shortlink.config;
+
+import com.shortlink.click.ClickEventRecorder;
+import com.shortlink.click.ClickEventSink;
+import com.shortlink.click.FileClickEventSink;
+import com.shortlink.click.RedisStreamClickEventSink;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.file.Paths;
+
+/**
+ * 点击事件配置
+ * shortlink.click.sink选择导出目标：file（默认，滚动的压缩文件）或redis（Redis Streams）
+ */
+@Configuration
+public class ClickEventConfig {
+
+    /**
+     * 点击事件导出目标，由记录器的消费者线程负责关闭，禁用容器推断的close销毁方法
+     */
+    @Bean(destroyMethod = "")
+    public ClickEventSink clickEventSink(ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                                         @Value("${shortlink.click.sink:file}") String sinkType,
+                                         @Value("${shortlink.click.file.directory:data/clicks}") String directory,
+                                         @Value("${shortlink.click.file.max-bytes:67108864}") long maxFileBytes,
+                                         @Value("${shortlink.click.file.roll-interval-ms:300000}") long rollIntervalMillis,
+                                         @Value("${shortlink.click.redis.stream-key:shortlink:clicks}") String streamKey,
+                                         @Value("${shortlink.click.redis.max-length:1000000}") long maxLength) {
+        if ("redis".equalsIgnoreCase(sinkType)) {
+            return new RedisStreamClickEventSink(redisTemplateProvider.getObject(), streamKey, maxLength);
+        }
+        if ("file".equalsIgnoreCase(sinkType)) {
+            return new FileClickEventSink(Paths.get(directory), maxFileBytes, rollIntervalMillis);
+        }
+        throw new IllegalArgumentException("不支持的点击事件导出目标: " + sinkType);
+    }
+
+    /**
+     * 点击事件记录器，实现SmartLifecycle，消费者线程随应用上下文启动和停止
+     */
+    @Bean
+    public ClickEventRecorder clickEventRecorder(ClickEventSink clickEventSink,
+                                                 @Value("${shortlink.click.buffer-capacity:65536}") int capacity,
+                                                 @Value("${shortlink.click.batch-size:4096}") int batchSize,
+                                                 @Value("${shortlink.click.flush-interval-ms:1000}") long flushIntervalMillis) {
+        return new ClickEventRecorder(clickEventSink, capacity, batchSize, flushIntervalMillis);
+    }
+}
@@ -0,0 +1,52 @@
+package com.shortlink.config;
+
+import com.shortlink.store.InMemoryCodeSpaceStore;
+import com.shortlink.store.RedisCodeSpaceStore;
+import com.shortlink.util.CodeSpaceManager;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 编码空间状态同步
+ * 启动时为CodeSpaceManager配置状态存储：redis（默认，多节点共享）或memory（仅本进程），
+ * 并定期从存储同步占用统计、检查是否需要升级，使其他节点的分配和升级在本节点生效。
+ * CodeSpaceManager的存储是进程级静态状态，同一进程中有多个应用上下文时，最后启动的上下文生效
+ */
+@Lazy(false)
+@Component
+public class CodeSpaceSynchronizer {
+
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    private final String storeType;
+    private final double promotionThreshold;
+
+    public CodeSpaceSynchronizer(ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                                 @Value("${shortlink.codespace.store:redis}") String storeType,
+                                 @Value("${shortlink.codespace.promotion-threshold:0.01}") double promotionThreshold) {
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.storeType = storeType;
+        this.promotionThreshold = promotionThreshold;
+    }
+
+    @PostConstruct
+    public void init() {
+        CodeSpaceManager.setPromotionThreshold(promotionThreshold);
+        if ("redis".equalsIgnoreCase(storeType)) {
+            CodeSpaceManager.setStore(new RedisCodeSpaceStore(redisTemplateProvider.getObject()));
+        } else if ("memory".equalsIgnoreCase(storeType)) {
+            CodeSpaceManager.setStore(new InMemoryCodeSpaceStore());
+        } else {
+            throw new IllegalArgumentException("不支持的编码空间存储: " + storeType);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shortlink.codespace.refresh-interval-ms:5000}")
+    public void refresh() {
+        CodeSpaceManager.refresh();
+    }
+}
@@ -0,0 +1,30 @@
+package com.shortlink.config;
+
+import com.shortlink.store.InMemoryLinkStore;
+import com.shortlink.store.LinkStore;
+import com.shortlink.store.RedisLinkStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 短链接映射存储配置
+ * shortlink.link-store选择存储：redis（默认）或memory（仅本进程）
+ */
+@Configuration
+public class LinkStoreConfig {
+
+    @Bean
+    public LinkStore linkStore(ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                               @Value("${shortlink.link-store:redis}") String storeType) {
+        if ("redis".equalsIgnoreCase(storeType)) {
+            return new RedisLinkStore(redisTemplateProvider.getObject());
+        }
+        if ("memory".equalsIgnoreCase(storeType)) {
+            return new InMemoryLinkStore();
+        }
+        throw new IllegalArgumentException("不支持的短链接映射存储: " + storeType);
+    }
+}
@@ -0,0 +1,122 @@
+package com.shortlink.config;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import jakarta.servlet.DispatcherType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.savedrequest.NullRequestCache;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * 安全配置
+ * 公开的解析、校验路径完全无状态，不读取也不创建会话；
+ * 其余管理和生成接口使用HMAC签名的JWT认证，在本地用缓存的密钥验签，
+ * 因此任何请求都不需要访问Redis会话。
+ * 不参与全局延迟初始化：密钥校验和过滤器链在启动时完成，密钥配置错误时应用无法启动，
+ * 而不是在第一个请求时才失败
+ */
+@Lazy(false)
+@Configuration
+@EnableWebSecurity
+public class SecurityConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
+    private static final String JWT_ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32; // HS256要求密钥至少256位
+
+    // 公开路径：短链接解析、格式校验和健康检查探针
+    private static final String[] PUBLIC_PATHS = {
+            "/api/shortlink/resolve/**",
+            "/api/shortlink/validate/**",
+            "/actuator/health/**"
+    };
+
+    @Bean
+    @Order(1)
+    public SecurityFilterChain publicFilterChain(HttpSecurity http) throws Exception {
+        http.securityMatcher(PUBLIC_PATHS)
+                .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+                .csrf(AbstractHttpConfigurer::disable)
+                .requestCache(cache -> cache.requestCache(new NullRequestCache()))
+                .securityContext(context -> context.securityContextRepository(new RequestAttributeSecurityContextRepository()))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        return http.build();
+    }
+
+    @Bean
+    @Order(2)
+    public SecurityFilterChain apiFilterChain(HttpSecurity http) throws Exception {
+        // 错误转发（/error）放行，公开路径上发生的错误保留原始状态码，而不是变成401
+        http.authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
+                        .anyRequest().authenticated())
+                .csrf(AbstractHttpConfigurer::disable)
+                .requestCache(cache -> cache.requestCache(new NullRequestCache()))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .oauth2ResourceServer(oauth2 -> oauth2.jwt(Customizer.withDefaults()));
+        return http.build();
+    }
+
+    /**
+     * JWT签名密钥，启动时解析一次并缓存，解码器和本机预热请求共用
+     * @param secret Base64编码的HMAC密钥，未配置时生成仅本进程有效的随机密钥
+     * @return HMAC密钥
+     */
+    @Bean
+    public SecretKey jwtSecretKey(@Value("${shortlink.security.jwt-secret:}") String secret) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            log.warn("未配置shortlink.security.jwt-secret，使用随机生成的密钥，管理接口的令牌只在本进程内有效");
+            keyBytes = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = Base64.getDecoder().decode(secret);
+            if (keyBytes.length < MIN_SECRET_BYTES) {
+                throw new IllegalStateException("shortlink.security.jwt-secret长度不足，HS256至少需要"
+                        + MIN_SECRET_BYTES + "字节，当前为" + keyBytes.length + "字节");
+            }
+        }
+        return new SecretKeySpec(keyBytes, JWT_ALGORITHM);
+    }
+
+    /**
+     * JWT解码器，验签全部在本地完成
+     * @param jwtSecretKey HMAC密钥
+     * @return JWT解码器
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(SecretKey jwtSecretKey) {
+        return NimbusJwtDecoder.withSecretKey(jwtSecretKey).build();
+    }
+
+    /**
+     * JWT编码器，用于启动预热时签发本机使用的短期令牌
+     * @param jwtSecretKey HMAC密钥
+     * @return JWT编码器
+     */
+    @Bean
+    public JwtEncoder jwtEncoder(SecretKey jwtSecretKey) {
+        return new NimbusJwtEncoder(new ImmutableSecret<>(jwtSecretKey));
+    }
+}
@@ -1,19 +1,44 @@
 package com.shortlink.controller;
 
+import com.shortlink.cache.HotLinkCache;
+import com.shortlink.click.ClickEventRecorder;
+import com.shortlink.store.LinkStore;
+import com.shortlink.util.CodeSpaceManager;
 import com.shortlink.util.ShortLinkUtil;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.IntFunction;
 
 /**
  * 短链接生成控制器
  * 提供短链接生成和验证的API接口
+ * 属于热点路径，不参与全局延迟初始化
  */
+@Lazy(false)
 @RestController
 @RequestMapping("/api/shortlink")
 public class ShortLinkController {
 
+    private static final String INVALID_URL_MESSAGE = "URL不能包含控制字符";
+    private static final String CONFLICT_MESSAGE = "短链接编码冲突，请重试";
+    // 所有长度的编码都冲突后，改用随机编码的最大尝试次数
+    private static final int MAX_RANDOM_ATTEMPTS = 5;
+
+    private final LinkStore linkStore;
+    private final HotLinkCache hotLinkCache;
+    private final ClickEventRecorder clickEventRecorder;
+
+    public ShortLinkController(LinkStore linkStore, HotLinkCache hotLinkCache,
+                               ClickEventRecorder clickEventRecorder) {
+        this.linkStore = linkStore;
+        this.hotLinkCache = hotLinkCache;
+        this.clickEventRecorder = clickEventRecorder;
+    }
+
     /**
      * 生成短链接
      * @param request 包含原始URL的请求体
@@ -26,9 +51,16 @@ public class ShortLinkController {
         if (originalUrl == null || originalUrl.trim().isEmpty()) {
             return createErrorResponse("URL不能为空");
         }
+        if (!ShortLinkUtil.isValidOriginalUrl(originalUrl)) {
+            return createErrorResponse(INVALID_URL_MESSAGE);
+        }
         
         // 使用MD5算法生成短链接
-        String shortLink = ShortLinkUtil.generateShortLinkByMD5(originalUrl);
+        String shortLink = saveLink(originalUrl, CodeSpaceManager.getCurrentLength(),
+                length -> ShortLinkUtil.generateShortLinkByMD5(originalUrl, length));
+        if (shortLink == null) {
+            return createErrorResponse(CONFLICT_MESSAGE);
+        }
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -53,14 +85,25 @@ public class ShortLinkController {
             return createErrorResponse("URL列表不能为空");
         }
         
+        for (String url : urls) {
+            if (!ShortLinkUtil.isValidOriginalUrl(url)) {
+                return createErrorResponse(INVALID_URL_MESSAGE + ": " + url);
+            }
+        }
+        
         java.util.List<Map<String, String>> results = new java.util.ArrayList<>();
         
         for (String url : urls) {
-            String shortLink = ShortLinkUtil.generateShortLinkByMD5(url);
+            String shortLink = saveLink(url, CodeSpaceManager.getCurrentLength(),
+                    length -> ShortLinkUtil.generateShortLinkByMD5(url, length));
             
             Map<String, String> result = new HashMap<>();
             result.put("originalUrl", url);
-            result.put("shortLink", shortLink);
+            if (shortLink != null) {
+                result.put("shortLink", shortLink);
+            } else {
+                result.put("message", CONFLICT_MESSAGE);
+            }
             results.add(result);
         }
         
@@ -86,24 +129,31 @@ public class ShortLinkController {
         if (originalUrl == null || originalUrl.trim().isEmpty()) {
             return createErrorResponse("URL不能为空");
         }
+        if (!ShortLinkUtil.isValidOriginalUrl(originalUrl)) {
+            return createErrorResponse(INVALID_URL_MESSAGE);
+        }
         
-        String shortLink;
+        IntFunction<String> generator;
         String usedAlgorithm;
         
         if ("hash".equalsIgnoreCase(algorithm)) {
-            shortLink = ShortLinkUtil.generateShortLinkByHash(originalUrl);
+            generator = length -> ShortLinkUtil.generateShortLinkByHash(originalUrl, length);
             usedAlgorithm = "Hash";
         } else if ("random".equalsIgnoreCase(algorithm)) {
-            shortLink = ShortLinkUtil.generateRandomShortLink();
+            generator = ShortLinkUtil::generateRandomShortLink;
             usedAlgorithm = "Random";
         } else if ("timestamp".equalsIgnoreCase(algorithm)) {
-            shortLink = ShortLinkUtil.generateShortLinkWithTimestamp(originalUrl);
+            generator = length -> ShortLinkUtil.generateShortLinkWithTimestamp(originalUrl, length);
             usedAlgorithm = "Timestamp";
         } else {
             // 默认使用MD5
-            shortLink = ShortLinkUtil.generateShortLinkByMD5(originalUrl);
+            generator = length -> ShortLinkUtil.generateShortLinkByMD5(originalUrl, length);
             usedAlgorithm = "MD5";
         }
+        String shortLink = saveLink(originalUrl, CodeSpaceManager.getCurrentLength(), generator);
+        if (shortLink == null) {
+            return createErrorResponse(CONFLICT_MESSAGE);
+        }
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -139,6 +189,44 @@ public class ShortLinkController {
         return response;
     }
 
+    /**
+     * 解析短链接，返回原始URL
+     * @param shortLink 短链接字符串
+     * @param referrer 来源页面
+     * @param userAgent 客户端User-Agent
+     * @return 解析结果
+     */
+    @GetMapping("/resolve/{shortLink}")
+    public Map<String, Object> resolveShortLink(@PathVariable String shortLink,
+                                                @RequestHeader(value = HttpHeaders.REFERER, required = false) String referrer,
+                                                @RequestHeader(value = HttpHeaders.USER_AGENT, required = false) String userAgent) {
+        if (!ShortLinkUtil.isValidShortLink(shortLink)) {
+            return createErrorResponse("短链接格式无效");
+        }
+        
+        // 先查本地缓存，未命中时从存储加载并放入缓存
+        String originalUrl = hotLinkCache.get(shortLink);
+        if (originalUrl == null) {
+            originalUrl = linkStore.find(shortLink);
+            if (originalUrl != null) {
+                hotLinkCache.put(shortLink, originalUrl);
+            }
+        }
+        if (originalUrl == null) {
+            return createErrorResponse("短链接不存在");
+        }
+        
+        // 只写入环形缓冲区，缓冲区满时丢弃，不阻塞解析
+        clickEventRecorder.record(shortLink, referrer, userAgent);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("shortLink", shortLink);
+        response.put("originalUrl", originalUrl);
+        
+        return response;
+    }
+
     /**
      * 生成自定义长度的短链接
      * @param request 包含原始URL和长度的请求体
@@ -152,18 +240,30 @@ public class ShortLinkController {
         if (originalUrl == null || originalUrl.trim().isEmpty()) {
             return createErrorResponse("URL不能为空");
         }
+        if (!ShortLinkUtil.isValidOriginalUrl(originalUrl)) {
+            return createErrorResponse(INVALID_URL_MESSAGE);
+        }
         
         if (length == null || length <= 0) {
-            length = 6; // 默认长度
+            length = CodeSpaceManager.getCurrentLength(); // 默认长度
+        }
+        // 超出范围的编码无法通过解析接口的格式校验，不予生成
+        if (!CodeSpaceManager.isManagedLength(length)) {
+            return createErrorResponse("长度必须在" + CodeSpaceManager.MIN_LENGTH + "到"
+                    + CodeSpaceManager.MAX_LENGTH + "之间");
         }
         
-        String shortLink = ShortLinkUtil.generateCustomLengthShortLink(originalUrl, length);
+        String shortLink = saveLink(originalUrl, length,
+                codeLength -> ShortLinkUtil.generateCustomLengthShortLink(originalUrl, codeLength));
+        if (shortLink == null) {
+            return createErrorResponse(CONFLICT_MESSAGE);
+        }
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
         response.put("originalUrl", originalUrl);
         response.put("shortLink", shortLink);
-        response.put("length", length);
+        response.put("length", shortLink.length()); // 编码冲突时可能比请求的长度更长
         response.put("timestamp", System.currentTimeMillis());
         
         return response;
@@ -180,9 +280,13 @@ public class ShortLinkController {
         // 这里可以添加实际的统计逻辑
         stats.put("totalGenerated", 0); // 实际项目中可以从数据库获取
         stats.put("supportedAlgorithms", java.util.Arrays.asList("MD5", "Hash", "Random", "Timestamp"));
-        stats.put("defaultLength", 6);
+        int currentLength = CodeSpaceManager.getCurrentLength();
+        stats.put("defaultLength", currentLength);
         stats.put("characterSetSize", 62); // 26小写 + 26大写 + 10数字
-        stats.put("possibleCombinations", Math.pow(62, 6)); // 62^6
+        stats.put("possibleCombinations", Math.pow(62, currentLength)); // 62^currentLength
+        stats.put("codeSpace", CodeSpaceManager.getStats()); // 各长度占用率及预计耗尽时间
+        stats.put("cachedLinks", hotLinkCache.size());
+        stats.put("clicks", clickEventRecorder.getStats());
         stats.put("timestamp", System.currentTimeMillis());
         
         Map<String, Object> response = new HashMap<>();
@@ -192,6 +296,48 @@ public class ShortLinkController {
         return response;
     }
 
+    /**
+     * 生成编码并保存映射，已有映射不会被覆盖
+     * 编码已指向同一URL时直接返回该编码；指向其他URL时用下一个长度重新生成，
+     * 最长长度仍然冲突时改用随机编码
+     * @param originalUrl 原始URL
+     * @param startLength 起始编码长度
+     * @param generator 按长度生成编码
+     * @return 保存成功的短链接，多次尝试均冲突时返回null
+     */
+    private String saveLink(String originalUrl, int startLength, IntFunction<String> generator) {
+        for (int length = startLength; length <= CodeSpaceManager.MAX_LENGTH; length++) {
+            String shortLink = trySaveLink(generator.apply(length), originalUrl);
+            if (shortLink != null) {
+                return shortLink;
+            }
+        }
+        for (int i = 0; i < MAX_RANDOM_ATTEMPTS; i++) {
+            String shortLink = trySaveLink(
+                    ShortLinkUtil.generateRandomShortLink(CodeSpaceManager.MAX_LENGTH), originalUrl);
+            if (shortLink != null) {
+                return shortLink;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 尝试保存映射到存储，成功后记录编码分配并放入本地缓存
+     * @param shortLink 短链接
+     * @param originalUrl 原始URL
+     * @return 指向该URL的短链接，编码已被其他URL占用时返回null
+     */
+    private String trySaveLink(String shortLink, String originalUrl) {
+        if (linkStore.save(shortLink, originalUrl)) {
+            CodeSpaceManager.recordAllocation(shortLink);
+        } else if (!originalUrl.equals(linkStore.find(shortLink))) {
+            return null;
+        }
+        hotLinkCache.put(shortLink, originalUrl);
+        return shortLink;
+    }
+
     /**
      * 创建错误响应
      * @param message 错误信息
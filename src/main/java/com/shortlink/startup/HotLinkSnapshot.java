@@ -0,0 +1,198 @@
+package com.shortlink.startup;
+
+import com.shortlink.cache.HotLinkCache;
+import com.shortlink.util.ShortLinkUtil;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 热点短链接快照
+ * 定期把访问最多的编码写入本地gzip文件（每行：编码\t原始URL），
+ * 节点启动时与代码路径预热同时加载，避免冷启动时所有请求都穿透到后端。
+ * 生成接口拒绝包含控制字符的URL，写入时也会跳过这类条目，保证每行只对应一个映射。
+ * 配置了peer-key时同时把快照发布到Redis，新节点没有本地快照时可以从Redis拉取其他节点的快照
+ */
+@Lazy(false)
+@Component
+public class HotLinkSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(HotLinkSnapshot.class);
+
+    private static final String SEPARATOR = "\t";
+    private static final long PEER_SNAPSHOT_TTL_HOURS = 24;
+
+    private final HotLinkCache hotLinkCache;
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    private final boolean enabled;
+    private final Path snapshotFile;
+    private final int snapshotSize;
+    private final String peerKey;
+
+    public HotLinkSnapshot(HotLinkCache hotLinkCache,
+                           ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                           @Value("${shortlink.warmup.snapshot-enabled:true}") boolean enabled,
+                           @Value("${shortlink.warmup.snapshot-file:data/hot-links.snapshot.gz}") String snapshotFile,
+                           @Value("${shortlink.warmup.snapshot-size:10000}") int snapshotSize,
+                           @Value("${shortlink.warmup.peer-key:}") String peerKey) {
+        this.hotLinkCache = hotLinkCache;
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.enabled = enabled;
+        this.snapshotFile = Paths.get(snapshotFile);
+        this.snapshotSize = snapshotSize;
+        this.peerKey = peerKey;
+    }
+
+    @Scheduled(initialDelayString = "${shortlink.warmup.snapshot-interval-ms:60000}",
+            fixedDelayString = "${shortlink.warmup.snapshot-interval-ms:60000}")
+    public void scheduledSnapshot() {
+        if (enabled) {
+            saveSnapshot();
+        }
+    }
+
+    /**
+     * 停机前保存一次快照，保证重启后的节点能拿到最新的热点数据
+     */
+    @PreDestroy
+    public void shutdownSnapshot() {
+        if (enabled) {
+            saveSnapshot();
+        }
+    }
+
+    /**
+     * 保存热点快照
+     * @return 写入的条目数
+     */
+    public int saveSnapshot() {
+        Map<String, String> hottest = hotLinkCache.hottest(snapshotSize);
+        // 换行、制表符会破坏按行存储的格式
+        hottest.values().removeIf(url -> !ShortLinkUtil.isValidOriginalUrl(url));
+        if (hottest.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            writeSnapshotFile(hottest);
+        } catch (IOException e) {
+            log.warn("写入热点快照失败: {}", snapshotFile, e);
+        }
+
+        if (!peerKey.isEmpty()) {
+            publishToPeer(hottest);
+        }
+        return hottest.size();
+    }
+
+    /**
+     * 加载热点快照到本地缓存，本地快照不存在时尝试从Redis拉取其他节点的快照
+     * @return 加载的条目数
+     */
+    public int loadSnapshot() {
+        if (!enabled) {
+            return 0;
+        }
+
+        Map<String, String> snapshot = readSnapshotFile();
+        if (snapshot.isEmpty() && !peerKey.isEmpty()) {
+            snapshot = fetchFromPeer();
+        }
+
+        hotLinkCache.putAll(snapshot);
+        return snapshot.size();
+    }
+
+    private void writeSnapshotFile(Map<String, String> hottest) throws IOException {
+        Path parent = snapshotFile.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+
+        // 先写临时文件再原子替换，避免进程中断留下半个快照
+        Path tempFile = Files.createTempFile(parent, "hot-links", ".tmp");
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(tempFile)), StandardCharsets.UTF_8))) {
+            for (Map.Entry<String, String> entry : hottest.entrySet()) {
+                writer.write(entry.getKey());
+                writer.write(SEPARATOR);
+                writer.write(entry.getValue());
+                writer.newLine();
+            }
+        }
+        Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Map<String, String> readSnapshotFile() {
+        Map<String, String> snapshot = new HashMap<>();
+        if (!Files.exists(snapshotFile)) {
+            return snapshot;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(snapshotFile)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int index = line.indexOf(SEPARATOR);
+                if (index > 0) {
+                    snapshot.put(line.substring(0, index), line.substring(index + 1));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("读取热点快照失败: {}", snapshotFile, e);
+        }
+        return snapshot;
+    }
+
+    private void publishToPeer(Map<String, String> hottest) {
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            return;
+        }
+        // 先写入临时key再RENAME，其他节点任何时候读到的都是完整的快照
+        String tempKey = peerKey + ":tmp:" + UUID.randomUUID();
+        try {
+            redisTemplate.opsForHash().putAll(tempKey, hottest);
+            redisTemplate.expire(tempKey, PEER_SNAPSHOT_TTL_HOURS, TimeUnit.HOURS);
+            redisTemplate.rename(tempKey, peerKey);
+        } catch (RuntimeException e) {
+            log.warn("发布热点快照到Redis失败: {}", peerKey, e);
+        }
+    }
+
+    private Map<String, String> fetchFromPeer() {
+        Map<String, String> snapshot = new HashMap<>();
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            return snapshot;
+        }
+        try {
+            Map<Object, Object> entries = redisTemplate.opsForHash().entries(peerKey);
+            entries.forEach((code, url) -> snapshot.put(String.valueOf(code), String.valueOf(url)));
+        } catch (RuntimeException e) {
+            log.warn("从Redis拉取热点快照失败: {}", peerKey, e);
+        }
+        return snapshot;
+    }
+}
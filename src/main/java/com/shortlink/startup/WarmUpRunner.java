@@ -0,0 +1,152 @@
+package com.shortlink.startup;
+
+import com.shortlink.util.CodeSpaceManager;
+import com.shortlink.util.ShortLinkUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 启动预热
+ * ApplicationRunner在Web服务器启动之后、应用发布ACCEPTING_TRAFFIC之前执行，
+ * 因此预热完成前readiness探针不会切换，新节点不会过早接收流量。
+ * 热点快照的加载与代码路径预热并行进行，之后通过本机回环请求走完整的过滤器链和DispatcherServlet，
+ * 使延迟初始化的MVC、Jackson和安全相关Bean在接收真实流量之前完成初始化和JIT预热。
+ * 回环请求轮流使用本机签发的有效令牌、无令牌和无效令牌，认证成功和失败的路径都会被执行，
+ * 总耗时不超过shortlink.warmup.http-max-millis
+ */
+@Component
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    private static final String WARM_UP_URL = "https://warmup.shortlink.local/";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+    private static final String WARM_UP_SUBJECT = "warm-up";
+
+    // 回环请求路径：公开路径使用格式无效的编码，不会命中缓存，也不会产生点击事件；
+    // stats需要认证，携带有效令牌时执行处理方法和Jackson序列化
+    private static final List<String> WARM_UP_PATHS = List.of(
+            "/api/shortlink/validate/abc123",
+            "/api/shortlink/resolve/warm-up",
+            "/api/shortlink/stats",
+            "/actuator/health"
+    );
+
+    private final HotLinkSnapshot hotLinkSnapshot;
+    private final JwtEncoder jwtEncoder;
+    private final Environment environment;
+    private final int iterations;
+    private final long httpMaxMillis;
+
+    public WarmUpRunner(HotLinkSnapshot hotLinkSnapshot,
+                        JwtEncoder jwtEncoder,
+                        Environment environment,
+                        @Value("${shortlink.warmup.iterations:2000}") int iterations,
+                        @Value("${shortlink.warmup.http-max-millis:2000}") long httpMaxMillis) {
+        this.hotLinkSnapshot = hotLinkSnapshot;
+        this.jwtEncoder = jwtEncoder;
+        this.environment = environment;
+        this.iterations = iterations;
+        this.httpMaxMillis = httpMaxMillis;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long startTime = System.currentTimeMillis();
+        CompletableFuture<Integer> snapshotLoad = CompletableFuture.supplyAsync(hotLinkSnapshot::loadSnapshot);
+
+        // 预热生成与校验路径：加载MessageDigest实现、编译正则并触发JIT
+        int length = CodeSpaceManager.getCurrentLength();
+        for (int i = 0; i < iterations; i++) {
+            String url = WARM_UP_URL + i;
+            ShortLinkUtil.isValidShortLink(ShortLinkUtil.generateShortLinkByMD5(url));
+            ShortLinkUtil.isValidShortLink(ShortLinkUtil.generateShortLinkByHash(url));
+            ShortLinkUtil.generateCustomLengthShortLink(url, length);
+        }
+
+        int loaded = snapshotLoad.join();
+        int requests = warmUpHttp();
+        log.info("启动预热完成，迭代 {} 次，加载热点快照 {} 条，回环请求 {} 次，耗时 {}ms",
+                iterations, loaded, requests, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 在限定时间内向本机端口循环发送请求，覆盖公开路径、需要认证的路径
+     * （有效令牌、无令牌、无效令牌）以及健康检查
+     * @return 成功收到非5xx响应的请求数
+     */
+    private int warmUpHttp() {
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port == null || port <= 0) {
+            return 0; // 非Web环境（如MockMvc测试）没有监听端口
+        }
+
+        String[] authorizations = {"Bearer " + signWarmUpToken(), null, "Bearer invalid-token"};
+        HttpClient client = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+        String baseUrl = "http://localhost:" + port;
+        long deadline = System.currentTimeMillis() + httpMaxMillis;
+        int completed = 0;
+        for (int i = 0; System.currentTimeMillis() < deadline; i++) {
+            String authorization = authorizations[i % authorizations.length];
+            for (String path : WARM_UP_PATHS) {
+                HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                        .timeout(REQUEST_TIMEOUT);
+                if (authorization != null) {
+                    builder.header("Authorization", authorization);
+                }
+                try {
+                    HttpResponse<Void> response = client.send(builder.GET().build(),
+                            HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() >= 500) {
+                        // 服务端错误说明初始化失败，继续预热没有意义，也不应计为成功
+                        log.warn("预热请求返回 {}: {}", response.statusCode(), path);
+                        return completed;
+                    }
+                    completed++;
+                } catch (IOException e) {
+                    log.warn("预热请求失败: {}", path, e);
+                    return completed;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return completed;
+                }
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * 签发只用于本机预热的短期令牌，有效期覆盖整个预热过程
+     * @return JWT字符串
+     */
+    private String signWarmUpToken() {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject(WARM_UP_SUBJECT)
+                .issuedAt(now)
+                .expiresAt(now.plusMillis(httpMaxMillis).plus(REQUEST_TIMEOUT))
+                .build();
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+}
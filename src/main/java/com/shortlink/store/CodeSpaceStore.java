@@ -0,0 +1,35 @@
+package com.shortlink.store;
+
+/**
+ * 编码空间状态存储
+ * 估算每个长度已分配的不重复编码数量，并保存编码长度升级到的最大值，多个节点共享同一份状态
+ */
+public interface CodeSpaceStore {
+
+    /**
+     * 记录一个编码，重复记录同一编码不会增加占用
+     * @param length 编码长度
+     * @param shortCode 短链接编码
+     */
+    void addCode(int length, String shortCode);
+
+    /**
+     * 获取某个长度已分配的不重复编码数量（估算值）
+     * @param length 编码长度
+     * @return 不重复编码数量
+     */
+    long getOccupancy(int length);
+
+    /**
+     * 获取编码长度曾经升级到的最大值
+     * @return 编码长度，从未升级时为最短长度
+     */
+    int getPromotedLength();
+
+    /**
+     * 把升级长度提高到指定值，已经更长时保持不变
+     * @param length 目标长度
+     * @return 升级后的长度
+     */
+    int promoteTo(int length);
+}
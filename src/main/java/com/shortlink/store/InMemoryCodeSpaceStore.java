@@ -0,0 +1,96 @@
+package com.shortlink.store;
+
+import com.shortlink.util.CodeSpaceManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 进程内的编码空间状态存储
+ * 每个长度用一个HyperLogLog估算不重复编码数量（16384个寄存器，占用16KB，误差约0.81%），
+ * 内存占用与已分配的编码数量无关。状态不跨节点共享，重启后丢失
+ */
+public class InMemoryCodeSpaceStore implements CodeSpaceStore {
+
+    private final Map<Integer, HyperLogLog> sketches = new ConcurrentHashMap<>();
+    private final AtomicInteger promotedLength = new AtomicInteger(CodeSpaceManager.MIN_LENGTH);
+
+    @Override
+    public void addCode(int length, String shortCode) {
+        sketches.computeIfAbsent(length, key -> new HyperLogLog()).add(shortCode);
+    }
+
+    @Override
+    public long getOccupancy(int length) {
+        HyperLogLog sketch = sketches.get(length);
+        return sketch == null ? 0 : sketch.estimate();
+    }
+
+    @Override
+    public int getPromotedLength() {
+        return promotedLength.get();
+    }
+
+    @Override
+    public int promoteTo(int length) {
+        return promotedLength.accumulateAndGet(length, Math::max);
+    }
+
+    /**
+     * HyperLogLog基数估算，参数与Redis一致（p = 14）
+     */
+    private static class HyperLogLog {
+
+        private static final int PRECISION = 14;
+        private static final int REGISTER_COUNT = 1 << PRECISION;
+        private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+
+        private final byte[] registers = new byte[REGISTER_COUNT];
+
+        synchronized void add(String value) {
+            long hash = hash(value);
+            int index = (int) (hash >>> (Long.SIZE - PRECISION));
+            // 剩余位中第一个1出现的位置，末尾补1保证结果不超过64 - PRECISION + 1
+            byte rank = (byte) (Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1);
+            if (rank > registers[index]) {
+                registers[index] = rank;
+            }
+        }
+
+        synchronized long estimate() {
+            double sum = 0;
+            int zeros = 0;
+            for (byte register : registers) {
+                sum += 1.0 / (1L << register);
+                if (register == 0) {
+                    zeros++;
+                }
+            }
+            double estimate = ALPHA * REGISTER_COUNT * REGISTER_COUNT / sum;
+            // 小基数时改用线性计数，误差更小
+            if (estimate <= 2.5 * REGISTER_COUNT && zeros > 0) {
+                estimate = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeros);
+            }
+            return Math.round(estimate);
+        }
+
+        /**
+         * 64位FNV-1a哈希，再经过MurmurHash3的finalizer打散，保证高位分布均匀
+         */
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= (b & 0xFF);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
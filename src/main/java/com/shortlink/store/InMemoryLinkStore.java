@@ -0,0 +1,23 @@
+package com.shortlink.store;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内的短链接映射存储
+ * 不限容量、重启后丢失，仅用于单机运行和测试
+ */
+public class InMemoryLinkStore implements LinkStore {
+
+    private final Map<String, String> links = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean save(String shortCode, String originalUrl) {
+        return links.putIfAbsent(shortCode, originalUrl) == null;
+    }
+
+    @Override
+    public String find(String shortCode) {
+        return links.get(shortCode);
+    }
+}
@@ -0,0 +1,23 @@
+package com.shortlink.store;
+
+/**
+ * 短链接映射存储
+ * 编码到原始URL映射的持久化来源，本地缓存未命中时从这里读取
+ */
+public interface LinkStore {
+
+    /**
+     * 编码不存在时保存映射，已存在的映射不会被覆盖
+     * @param shortCode 短链接编码
+     * @param originalUrl 原始URL
+     * @return 是否保存成功，编码已被占用时返回false
+     */
+    boolean save(String shortCode, String originalUrl);
+
+    /**
+     * 查询原始URL
+     * @param shortCode 短链接编码
+     * @return 原始URL，不存在时返回null
+     */
+    String find(String shortCode);
+}
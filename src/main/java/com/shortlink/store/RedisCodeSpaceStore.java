@@ -0,0 +1,58 @@
+package com.shortlink.store;
+
+import com.shortlink.util.CodeSpaceManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.util.Collections;
+
+/**
+ * 基于Redis的编码空间状态存储
+ * 每个长度的不重复编码用HyperLogLog估算（误差约0.81%）。PFADD的返回值只表示寄存器是否变化，
+ * HLL变稠密后大部分新编码都会返回0，因此不能用来判断是否为新编码，占用只通过PFCOUNT读取。
+ * 升级长度保存在一个key中，通过Lua脚本只增不减，所有节点看到的是同一个值
+ */
+public class RedisCodeSpaceStore implements CodeSpaceStore {
+
+    private static final String CODES_KEY_PREFIX = "shortlink:codespace:codes:";
+    private static final String PROMOTED_LENGTH_KEY = "shortlink:codespace:promoted-length";
+
+    // 取当前值与目标值中较大的一个写回，保证并发升级时长度不会回退
+    private static final DefaultRedisScript<Long> PROMOTE_SCRIPT = new DefaultRedisScript<>(
+            "local current = tonumber(redis.call('GET', KEYS[1]) or ARGV[2]) "
+                    + "local target = tonumber(ARGV[1]) "
+                    + "if target > current then redis.call('SET', KEYS[1], target) current = target end "
+                    + "return current",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisCodeSpaceStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public void addCode(int length, String shortCode) {
+        redisTemplate.opsForHyperLogLog().add(CODES_KEY_PREFIX + length, shortCode);
+    }
+
+    @Override
+    public long getOccupancy(int length) {
+        Long size = redisTemplate.opsForHyperLogLog().size(CODES_KEY_PREFIX + length);
+        return size == null ? 0 : size;
+    }
+
+    @Override
+    public int getPromotedLength() {
+        String value = redisTemplate.opsForValue().get(PROMOTED_LENGTH_KEY);
+        return value == null ? CodeSpaceManager.MIN_LENGTH : Integer.parseInt(value);
+    }
+
+    @Override
+    public int promoteTo(int length) {
+        Long promoted = redisTemplate.execute(PROMOTE_SCRIPT,
+                Collections.singletonList(PROMOTED_LENGTH_KEY),
+                String.valueOf(length), String.valueOf(CodeSpaceManager.MIN_LENGTH));
+        return promoted == null ? length : promoted.intValue();
+    }
+}
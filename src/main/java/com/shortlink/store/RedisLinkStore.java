@@ -0,0 +1,27 @@
+package com.shortlink.store;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 基于Redis的短链接映射存储，每个编码对应一个字符串key，使用SETNX保存，已有映射不会被覆盖
+ */
+public class RedisLinkStore implements LinkStore {
+
+    private static final String KEY_PREFIX = "shortlink:link:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisLinkStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public boolean save(String shortCode, String originalUrl) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + shortCode, originalUrl));
+    }
+
+    @Override
+    public String find(String shortCode) {
+        return redisTemplate.opsForValue().get(KEY_PREFIX + shortCode);
+    }
+}
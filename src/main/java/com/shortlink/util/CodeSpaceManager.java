@@ -0,0 +1,257 @@
+package com.shortlink.util;
+
+import com.shortlink.store.CodeSpaceStore;
+import com.shortlink.store.InMemoryCodeSpaceStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 短链接编码空间管理器
+ * 按长度统计已分配的不重复编码，当前长度的碰撞概率超过阈值时自动升级到更长的编码。
+ * 统计数据和升级后的长度保存在CodeSpaceStore中，默认是进程内存储，
+ * 多节点部署时由CodeSpaceSynchronizer替换为Redis存储，使所有节点共享同一份状态。
+ * 分配编码时只写入存储，占用统计、升级检查和分配速率都在定期刷新时计算，
+ * 读取统计信息不会访问存储，存储不可用时继续使用最近一次刷新的结果
+ */
+public class CodeSpaceManager {
+
+    private static final Logger log = LoggerFactory.getLogger(CodeSpaceManager.class);
+
+    public static final int MIN_LENGTH = 6; // 最短编码长度
+    public static final int MAX_LENGTH = 8; // 最长编码长度
+    public static final double DEFAULT_PROMOTION_THRESHOLD = 0.01; // 默认升级阈值（碰撞概率1%）
+
+    // 字符集大小，与ShortLinkUtil的字符集一致：26小写 + 26大写 + 10数字
+    private static final int CHARACTER_SET_SIZE = 62;
+
+    private static volatile CodeSpaceStore store = new InMemoryCodeSpaceStore();
+    // 存储中升级长度的本地副本，在定期刷新时更新
+    private static volatile int currentLength = MIN_LENGTH;
+    // 最近一次刷新时各长度的占用，下标为编码长度
+    private static volatile long[] occupancy = new long[MAX_LENGTH + 1];
+    private static volatile double promotionThreshold = DEFAULT_PROMOTION_THRESHOLD;
+
+    // 分配速率的起点：当前长度在某次刷新时的占用和时间，占用增量除以时间即为所有节点的分配速率
+    private static int rateBaseLength = -1;
+    private static long rateBaseOccupancy;
+    private static long rateBaseTime;
+    private static volatile double allocationsPerSecond = -1;
+
+    private CodeSpaceManager() {
+    }
+
+    /**
+     * 设置编码空间状态存储，并从中同步当前状态
+     * 存储是进程级的静态状态：同一进程中启动多个应用上下文（如测试缓存的多个上下文）时，
+     * 最后启动的上下文配置的存储生效
+     * @param codeSpaceStore 状态存储
+     */
+    public static synchronized void setStore(CodeSpaceStore codeSpaceStore) {
+        store = codeSpaceStore;
+        occupancy = new long[MAX_LENGTH + 1];
+        rateBaseLength = -1;
+        allocationsPerSecond = -1;
+        refresh();
+    }
+
+    /**
+     * 从存储同步占用统计和升级后的长度，碰撞概率超过阈值时升级，并更新分配速率
+     * 由CodeSpaceSynchronizer定期调用，使其他节点的分配和升级在本节点生效
+     */
+    public static synchronized void refresh() {
+        try {
+            long[] latest = new long[MAX_LENGTH + 1];
+            for (int length = MIN_LENGTH; length <= MAX_LENGTH; length++) {
+                latest[length] = store.getOccupancy(length);
+            }
+            occupancy = latest;
+
+            int length = store.getPromotedLength();
+            int target = length;
+            while (target < MAX_LENGTH && latest[target] / (double) getCapacity(target) >= promotionThreshold) {
+                target++;
+            }
+            if (target > length) {
+                length = store.promoteTo(target);
+                log.info("编码长度升级到 {} 位", length);
+            }
+            currentLength = length;
+            updateAllocationRate(length, latest[length]);
+        } catch (RuntimeException e) {
+            log.warn("同步编码空间状态失败，继续使用本地值，当前长度: {}", currentLength, e);
+        }
+    }
+
+    /**
+     * 获取新编码当前应使用的长度
+     * @return 编码长度
+     */
+    public static int getCurrentLength() {
+        return currentLength;
+    }
+
+    /**
+     * 判断某个长度是否在编码空间的管理范围内，范围内的编码都可以被校验和解析
+     * @param length 编码长度
+     * @return 是否在管理范围内
+     */
+    public static boolean isManagedLength(int length) {
+        return length >= MIN_LENGTH && length <= MAX_LENGTH;
+    }
+
+    /**
+     * 判断某个长度是否已经启用（不超过曾经升级到的最大长度）
+     * @param length 编码长度
+     * @return 是否已启用
+     */
+    public static boolean isActiveLength(int length) {
+        return length >= MIN_LENGTH && length <= currentLength;
+    }
+
+    /**
+     * 记录一次编码分配，存储按编码去重，同一编码重复记录不增加占用
+     * 存储不可用时只记录日志，不影响短链接生成
+     * @param shortCode 新分配的短链接编码
+     */
+    public static void recordAllocation(String shortCode) {
+        if (shortCode == null || !isManagedLength(shortCode.length())) {
+            return; // 不在管理范围内的自定义长度不计入
+        }
+        try {
+            store.addCode(shortCode.length(), shortCode);
+        } catch (RuntimeException e) {
+            log.warn("记录编码分配失败: {}", shortCode, e);
+        }
+    }
+
+    /**
+     * 获取某个长度的已占用数量（最近一次刷新时的值）
+     * @param length 编码长度
+     * @return 已占用数量
+     */
+    public static long getOccupancy(int length) {
+        if (!isManagedLength(length)) {
+            return 0;
+        }
+        return occupancy[length];
+    }
+
+    /**
+     * 设置升级阈值
+     * @param threshold 碰撞概率阈值，取值范围(0, 1]
+     */
+    public static void setPromotionThreshold(double threshold) {
+        if (threshold <= 0 || threshold > 1) {
+            throw new IllegalArgumentException("升级阈值必须在(0, 1]之间: " + threshold);
+        }
+        promotionThreshold = threshold;
+    }
+
+    public static double getPromotionThreshold() {
+        return promotionThreshold;
+    }
+
+    /**
+     * 获取某个长度的编码空间容量
+     * @param length 编码长度
+     * @return 可能的组合数（62^length）
+     */
+    public static long getCapacity(int length) {
+        long capacity = 1;
+        for (int i = 0; i < length; i++) {
+            capacity *= CHARACTER_SET_SIZE;
+        }
+        return capacity;
+    }
+
+    /**
+     * 估算在某个长度下新生成一个编码与已有编码碰撞的概率
+     * 对于均匀分布的随机/哈希编码，该概率约等于空间占用率
+     * @param length 编码长度
+     * @return 碰撞概率
+     */
+    public static double getCollisionProbability(int length) {
+        return getOccupancy(length) / (double) getCapacity(length);
+    }
+
+    /**
+     * 根据所有节点的分配速率估算当前长度达到升级阈值的剩余时间
+     * @return 剩余秒数，无法估算时返回-1
+     */
+    public static long getProjectedSecondsToPromotion() {
+        int length = currentLength;
+        double remaining = promotionThreshold * getCapacity(length) - getOccupancy(length);
+        if (remaining <= 0) {
+            return 0;
+        }
+        double ratePerSecond = allocationsPerSecond;
+        if (ratePerSecond <= 0) {
+            return -1;
+        }
+        return (long) (remaining / ratePerSecond);
+    }
+
+    /**
+     * 获取编码空间统计信息
+     * @return 统计信息
+     */
+    public static Map<String, Object> getStats() {
+        List<Map<String, Object>> lengths = new ArrayList<>();
+        for (int length = MIN_LENGTH; length <= MAX_LENGTH; length++) {
+            Map<String, Object> lengthStats = new HashMap<>();
+            lengthStats.put("length", length);
+            lengthStats.put("occupied", getOccupancy(length));
+            lengthStats.put("capacity", getCapacity(length));
+            lengthStats.put("occupancyRatio", getCollisionProbability(length));
+            lengthStats.put("active", isActiveLength(length));
+            lengths.add(lengthStats);
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("currentLength", currentLength);
+        stats.put("promotionThreshold", promotionThreshold);
+        stats.put("currentCollisionProbability", getCollisionProbability(currentLength));
+        stats.put("projectedSecondsToPromotion", getProjectedSecondsToPromotion());
+        stats.put("lengths", lengths);
+        return stats;
+    }
+
+    /**
+     * 更新分配速率，调用方需持有锁
+     * 长度变化后重新选取起点，旧长度的占用增量不再代表新编码的分配速率
+     * @param length 当前长度
+     * @param lengthOccupancy 当前长度的占用
+     */
+    private static void updateAllocationRate(int length, long lengthOccupancy) {
+        long now = System.currentTimeMillis();
+        if (length != rateBaseLength) {
+            rateBaseLength = length;
+            rateBaseOccupancy = lengthOccupancy;
+            rateBaseTime = now;
+            allocationsPerSecond = -1;
+            return;
+        }
+        long allocations = lengthOccupancy - rateBaseOccupancy;
+        if (allocations > 0) {
+            allocationsPerSecond = allocations * 1000.0 / Math.max(1, now - rateBaseTime);
+        }
+    }
+
+    /**
+     * 重置为空的进程内存储（仅用于测试）
+     */
+    static synchronized void reset() {
+        store = new InMemoryCodeSpaceStore();
+        currentLength = MIN_LENGTH;
+        occupancy = new long[MAX_LENGTH + 1];
+        promotionThreshold = DEFAULT_PROMOTION_THRESHOLD;
+        rateBaseLength = -1;
+        allocationsPerSecond = -1;
+        refresh();
+    }
+}
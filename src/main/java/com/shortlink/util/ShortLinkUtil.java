@@ -1,5 +1,6 @@
 package com.shortlink.util;
 
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
@@ -13,8 +14,10 @@ public class ShortLinkUtil {
     
     // 字符集：包含数字、小写字母、大写字母
     private static final String CHARACTERS = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
-    private static final int SHORT_LINK_LENGTH = 6; // 短链接长度
     private static final Random RANDOM = new Random();
+    // 64位FNV-1a哈希参数
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
     
     /**
      * 使用MD5哈希算法生成短链接
@@ -22,25 +25,35 @@ public class ShortLinkUtil {
      * @return 短链接字符串
      */
     public static String generateShortLinkByMD5(String originalUrl) {
+        return generateShortLinkByMD5(originalUrl, CodeSpaceManager.getCurrentLength());
+    }
+    
+    /**
+     * 使用MD5哈希算法生成指定长度的短链接
+     * @param originalUrl 原始URL
+     * @param length 短链接长度
+     * @return 短链接字符串
+     */
+    public static String generateShortLinkByMD5(String originalUrl, int length) {
         try {
             MessageDigest md = MessageDigest.getInstance("MD5");
             byte[] digest = md.digest(originalUrl.getBytes());
             
-            // 将MD5哈希值转换为Base64编码，然后取前6位
+            // 将MD5哈希值转换为Base64编码，然后取前length位
             String base64 = Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
             
             // 移除Base64中的特殊字符，只保留字母和数字
             String filtered = base64.replaceAll("[^a-zA-Z0-9]", "");
             
             // 如果过滤后的字符串长度不足，用随机字符补充
-            if (filtered.length() < SHORT_LINK_LENGTH) {
-                return filtered + generateRandomString(SHORT_LINK_LENGTH - filtered.length());
+            if (filtered.length() < length) {
+                return filtered + generateRandomString(length - filtered.length());
             }
             
-            return filtered.substring(0, SHORT_LINK_LENGTH);
+            return filtered.substring(0, length);
         } catch (NoSuchAlgorithmException e) {
             // 如果MD5不可用，使用随机字符串
-            return generateRandomShortLink();
+            return generateRandomString(length);
         }
     }
     
@@ -50,17 +63,32 @@ public class ShortLinkUtil {
      * @return 短链接字符串
      */
     public static String generateShortLinkByHash(String originalUrl) {
-        int hash = originalUrl.hashCode();
+        return generateShortLinkByHash(originalUrl, CodeSpaceManager.getCurrentLength());
+    }
+    
+    /**
+     * 使用简单哈希算法生成指定长度的短链接
+     * 使用64位FNV-1a哈希，63位有效位足够填满8位62进制编码，升级长度后新增的字符同样有区分度
+     * @param originalUrl 原始URL
+     * @param length 短链接长度
+     * @return 短链接字符串
+     */
+    public static String generateShortLinkByHash(String originalUrl, int length) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : originalUrl.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xFF);
+            hash *= FNV_PRIME;
+        }
         
         // 确保哈希值为正数
-        hash = hash & 0x7FFFFFFF;
+        hash = hash & Long.MAX_VALUE;
         
-        StringBuilder shortLink = new StringBuilder();
+        StringBuilder shortLink = new StringBuilder(length);
         
         // 将哈希值转换为62进制
-        int temp = hash;
-        for (int i = 0; i < SHORT_LINK_LENGTH; i++) {
-            int index = temp % CHARACTERS.length();
+        long temp = hash;
+        for (int i = 0; i < length; i++) {
+            int index = (int) (temp % CHARACTERS.length());
             shortLink.append(CHARACTERS.charAt(index));
             temp = temp / CHARACTERS.length();
         }
@@ -73,7 +101,16 @@ public class ShortLinkUtil {
      * @return 随机短链接字符串
      */
     public static String generateRandomShortLink() {
-        return generateRandomString(SHORT_LINK_LENGTH);
+        return generateRandomShortLink(CodeSpaceManager.getCurrentLength());
+    }
+    
+    /**
+     * 生成指定长度的随机短链接
+     * @param length 短链接长度
+     * @return 随机短链接字符串
+     */
+    public static String generateRandomShortLink(int length) {
+        return generateRandomString(length);
     }
     
     /**
@@ -92,11 +129,12 @@ public class ShortLinkUtil {
     
     /**
      * 验证短链接格式是否有效
+     * 接受编码空间管理的全部长度，已发放的编码不会因为节点重启或升级状态不同而失效
      * @param shortLink 短链接
      * @return 是否有效
      */
     public static boolean isValidShortLink(String shortLink) {
-        if (shortLink == null || shortLink.length() != SHORT_LINK_LENGTH) {
+        if (shortLink == null || !CodeSpaceManager.isManagedLength(shortLink.length())) {
             return false;
         }
         
@@ -110,15 +148,43 @@ public class ShortLinkUtil {
         return true;
     }
     
+    /**
+     * 验证原始URL是否可以保存
+     * 不允许控制字符，避免换行、制表符等改变快照等按行存储的格式
+     * @param originalUrl 原始URL
+     * @return 是否有效
+     */
+    public static boolean isValidOriginalUrl(String originalUrl) {
+        if (originalUrl == null || originalUrl.trim().isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < originalUrl.length(); i++) {
+            if (Character.isISOControl(originalUrl.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
     /**
      * 生成带时间戳的短链接（避免冲突）
      * @param originalUrl 原始URL
      * @return 短链接字符串
      */
     public static String generateShortLinkWithTimestamp(String originalUrl) {
+        return generateShortLinkWithTimestamp(originalUrl, CodeSpaceManager.getCurrentLength());
+    }
+    
+    /**
+     * 生成指定长度的带时间戳的短链接
+     * @param originalUrl 原始URL
+     * @param length 短链接长度
+     * @return 短链接字符串
+     */
+    public static String generateShortLinkWithTimestamp(String originalUrl, int length) {
         String timestamp = String.valueOf(System.currentTimeMillis());
         String combined = originalUrl + timestamp;
-        return generateShortLinkByMD5(combined);
+        return generateShortLinkByMD5(combined, length);
     }
     
     /**
@@ -129,7 +195,7 @@ public class ShortLinkUtil {
      */
     public static String generateCustomLengthShortLink(String originalUrl, int length) {
         if (length <= 0) {
-            length = SHORT_LINK_LENGTH;
+            length = CodeSpaceManager.getCurrentLength();
         }
         
         try {
@@ -0,0 +1,86 @@
+package com.shortlink.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 本地短链接缓存测试
+ */
+class HotLinkCacheTest {
+
+    @Test
+    void testHottestOrder() {
+        HotLinkCache cache = new HotLinkCache(100);
+        cache.put("abc123", "https://www.example.com/1");
+        cache.put("abc124", "https://www.example.com/2");
+        cache.get("abc124");
+        cache.get("abc124");
+        cache.get("abc123");
+
+        Map<String, String> hottest = cache.hottest(1);
+        assertEquals(1, hottest.size());
+        assertEquals("https://www.example.com/2", hottest.get("abc124"));
+    }
+
+    @Test
+    void testPutKeepsHits() {
+        HotLinkCache cache = new HotLinkCache(100);
+        cache.put("abc123", "https://www.example.com/1");
+        cache.put("abc124", "https://www.example.com/2");
+        cache.get("abc123");
+        // 重复写入相同映射不会清空访问次数
+        cache.put("abc123", "https://www.example.com/1");
+        cache.get("abc124");
+
+        assertEquals("https://www.example.com/1", cache.hottest(1).get("abc123"));
+    }
+
+    @Test
+    void testEvictionKeepsHotEntries() {
+        int maxSize = 100;
+        HotLinkCache cache = new HotLinkCache(maxSize);
+        for (int i = 0; i < maxSize; i++) {
+            cache.put("code" + i, "https://www.example.com/" + i);
+        }
+        // code0被频繁访问，不应被抽样淘汰
+        for (int i = 0; i < 1000; i++) {
+            cache.get("code0");
+        }
+
+        for (int i = maxSize; i < maxSize * 3; i++) {
+            cache.put("code" + i, "https://www.example.com/" + i);
+        }
+
+        assertEquals(maxSize, cache.size());
+        assertEquals("https://www.example.com/0", cache.get("code0"));
+    }
+
+    @Test
+    void testConcurrentPutsStayBounded() throws InterruptedException {
+        int maxSize = 1000;
+        HotLinkCache cache = new HotLinkCache(maxSize);
+        int threads = 4;
+        CountDownLatch done = new CountDownLatch(threads);
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * 10_000;
+            workers.add(new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    cache.put("code" + (offset + i), "https://www.example.com/" + i);
+                }
+                done.countDown();
+            }));
+        }
+        workers.forEach(Thread::start);
+        done.await();
+
+        assertEquals(maxSize, cache.size());
+    }
+}
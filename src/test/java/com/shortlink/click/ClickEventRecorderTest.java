@@ -0,0 +1,285 @@
+package com.shortlink.click;
+
+import com.shortlink.cache.HotLinkCache;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 点击事件记录器测试
+ */
+class ClickEventRecorderTest {
+
+    // 记录点击后解析p99相对不记录时的上限
+    private static final long MAX_LATENCY_RATIO = 10;
+    private static final long LATENCY_SLACK_NANOS = 20_000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testDropWhenFull() {
+        ClickEventBuffer buffer = new ClickEventBuffer(4);
+
+        int accepted = 0;
+        for (int i = 0; i < 10; i++) {
+            if (buffer.offer(i, "abc123", null, 0)) {
+                accepted++;
+            }
+        }
+
+        assertEquals(4, accepted);
+        assertEquals(6, buffer.getDroppedCount());
+
+        // 消费后可以继续写入
+        ClickEventBatch batch = new ClickEventBatch(8);
+        assertEquals(4, buffer.drainTo(batch, batch.remaining()));
+        assertEquals(0, batch.getTimestamp(0));
+        assertEquals(3, batch.getTimestamp(3));
+        assertTrue(buffer.offer(10, "abc123", null, 0));
+    }
+
+    @Test
+    void testMultipleProducers() throws Exception {
+        CountingSink sink = new CountingSink();
+        ClickEventRecorder recorder = new ClickEventRecorder(sink, 1024, 256, 10);
+        recorder.start();
+
+        int threads = 4;
+        int perThread = 100_000;
+        runProducers(() -> recorder.record("abc123", null, null), threads, perThread, 0);
+        recorder.close();
+
+        // 每个事件要么被导出，要么被计入丢弃数
+        assertEquals((long) threads * perThread, recorder.getRecordedCount() + recorder.getDroppedCount());
+        assertEquals(recorder.getRecordedCount(), recorder.getExportedCount());
+        assertEquals(recorder.getRecordedCount(), sink.events.get());
+    }
+
+    @Test
+    void testFileSink() throws IOException {
+        ClickEventRecorder recorder = new ClickEventRecorder(
+                new FileClickEventSink(tempDir, 64 * 1024 * 1024, 60_000), 1024, 16, 10);
+        recorder.start();
+        for (int i = 0; i < 100; i++) {
+            recorder.record("abc123", i % 2 == 0 ? "https://www.example.com" : null, "Mozilla/5.0");
+        }
+        recorder.close();
+
+        List<String> names = listFileNames();
+        assertEquals(1, names.size());
+        assertTrue(names.get(0).endsWith(".bin.gz"));
+        assertEquals(100, readEvents(tempDir.resolve(names.get(0))));
+    }
+
+    @Test
+    void testFileSinkQuarantinesFailedFile() throws IOException {
+        FileClickEventSink sink = new FileClickEventSink(tempDir, 64 * 1024 * 1024, 60_000);
+        sink.write(batchOf("https://www.example.com"));
+
+        // 超过writeUTF上限的来源页面使批次写到一半失败
+        ClickEventBatch broken = batchOf("x".repeat(70_000));
+        assertThrows(IOException.class, () -> sink.write(broken));
+
+        sink.write(batchOf("https://www.example.com"));
+        sink.close();
+
+        List<String> names = listFileNames();
+        assertEquals(2, names.size());
+        assertEquals(1, names.stream().filter(name -> name.endsWith(".bin.gz.corrupt")).count());
+        Path completed = tempDir.resolve(names.stream().filter(name -> name.endsWith(".bin.gz")).findFirst().orElseThrow());
+        assertEquals(1, readEvents(completed));
+    }
+
+    @Test
+    void testIdleFileRolls() throws Exception {
+        ClickEventRecorder recorder = new ClickEventRecorder(
+                new FileClickEventSink(tempDir, 64 * 1024 * 1024, 50), 1024, 16, 10);
+        recorder.start();
+        recorder.record("abc123", null, "Mozilla/5.0");
+
+        // 没有新的点击时，文件也会在滚动时长到达后关闭
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (listFileNames().stream().noneMatch(name -> name.endsWith(".bin.gz"))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(listFileNames().stream().anyMatch(name -> name.endsWith(".bin.gz")));
+        recorder.close();
+    }
+
+    @Test
+    void testSinkClosedByConsumer() {
+        CountingSink sink = new CountingSink();
+        ClickEventRecorder recorder = new ClickEventRecorder(sink, 1024, 16, 10);
+        recorder.start();
+        recorder.record("abc123", null, null);
+        recorder.close();
+
+        assertEquals("click-event-exporter", sink.closedBy);
+        assertEquals(1, sink.events.get());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void testResolveLatencyBenchmark() throws Exception {
+        // 对比解析路径在记录/不记录点击时的延迟：以10万次/秒的速率解析，导出目标故意放慢
+        // 耗时受机器负载影响，只断言宽松的相对上限；默认不运行，使用 mvn -Pbenchmark test
+        HotLinkCache cache = new HotLinkCache(1024);
+        cache.put("abc123", "https://www.example.com");
+        int threads = 4;
+        int perThread = 50_000;
+        long intervalNanos = 1_000_000_000L * threads / 100_000; // 每个线程2.5万次/秒
+
+        long withoutClicks = p99(runProducers(() -> cache.get("abc123"), threads, perThread, intervalNanos));
+
+        ClickEventRecorder recorder = new ClickEventRecorder(new SlowSink(), 65536, 4096, 100);
+        recorder.start();
+        long withClicks = p99(runProducers(() -> {
+            if (cache.get("abc123") != null) {
+                recorder.record("abc123", "https://www.example.com", "Mozilla/5.0");
+            }
+        }, threads, perThread, intervalNanos));
+        recorder.close();
+
+        assertEquals((long) threads * perThread, recorder.getRecordedCount() + recorder.getDroppedCount());
+        // 纳秒级的基准值很小，比例之外再留出固定余量
+        assertTrue(withClicks <= MAX_LATENCY_RATIO * withoutClicks + LATENCY_SLACK_NANOS,
+                "记录点击后解析延迟明显上升，p99: " + withClicks + "ns，不记录时: " + withoutClicks + "ns");
+    }
+
+    private static long p99(long[] latencies) {
+        Arrays.sort(latencies);
+        return latencies[(int) (latencies.length * 0.99)];
+    }
+
+    private static ClickEventBatch batchOf(String referrer) {
+        ClickEventBatch batch = new ClickEventBatch(4);
+        batch.add(System.currentTimeMillis(), "abc123", referrer, "Mozilla/5.0".hashCode());
+        return batch;
+    }
+
+    private List<String> listFileNames() throws IOException {
+        try (Stream<Path> stream = Files.list(tempDir)) {
+            return stream.map(path -> path.getFileName().toString()).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * 读取导出文件中的事件数
+     */
+    private static int readEvents(Path file) throws IOException {
+        int events = 0;
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                int size;
+                try {
+                    size = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                for (int i = 0; i < size; i++) {
+                    in.readLong();
+                }
+                for (int i = 0; i < size; i++) {
+                    assertEquals("abc123", in.readUTF());
+                }
+                for (int i = 0; i < size; i++) {
+                    in.readUTF();
+                }
+                for (int i = 0; i < size; i++) {
+                    assertEquals("Mozilla/5.0".hashCode(), in.readInt());
+                }
+                events += size;
+            }
+        }
+        return events;
+    }
+
+    /**
+     * 多线程执行解析操作
+     * @param action 单次解析
+     * @param intervalNanos 每个线程两次解析的间隔，0表示不限速
+     * @return 每次解析的耗时（纳秒）
+     */
+    private long[] runProducers(Runnable action, int threads, int perThread, long intervalNanos)
+            throws InterruptedException {
+        long[] latencies = new long[threads * perThread];
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            int offset = t * perThread;
+            new Thread(() -> {
+                try {
+                    start.await();
+                    long next = System.nanoTime();
+                    for (int i = 0; i < perThread; i++) {
+                        if (intervalNanos > 0) {
+                            while (System.nanoTime() < next) {
+                                Thread.onSpinWait();
+                            }
+                            next += intervalNanos;
+                        }
+                        long begin = System.nanoTime();
+                        action.run();
+                        latencies[offset + i] = System.nanoTime() - begin;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+
+        start.countDown();
+        done.await();
+        return latencies;
+    }
+
+    private static class CountingSink implements ClickEventSink {
+        private final AtomicLong events = new AtomicLong();
+        private volatile String closedBy;
+
+        @Override
+        public void write(ClickEventBatch batch) {
+            events.addAndGet(batch.size());
+        }
+
+        @Override
+        public void close() {
+            closedBy = Thread.currentThread().getName();
+        }
+    }
+
+    private static class SlowSink implements ClickEventSink {
+        @Override
+        public void write(ClickEventBatch batch) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
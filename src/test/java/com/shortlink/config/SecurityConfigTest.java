@@ -0,0 +1,144 @@
+package com.shortlink.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.LazyInitializationBeanFactoryPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 安全配置测试
+ */
+@SpringBootTest(properties = {
+        "shortlink.link-store=memory",
+        "shortlink.codespace.store=memory",
+        "shortlink.security.jwt-secret=" + SecurityConfigTest.SECRET
+})
+@AutoConfigureMockMvc
+class SecurityConfigTest {
+
+    static final String SECRET = "c2hvcnRsaW5rLXRlc3Qtc2VjcmV0LTAxMjM0NTY3ODk="; // 32字节
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testPublicPathsWithoutSession() throws Exception {
+        MvcResult validate = mockMvc.perform(get("/api/shortlink/validate/abc123"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNull(validate.getRequest().getSession(false));
+
+        MvcResult resolve = mockMvc.perform(get("/api/shortlink/resolve/abc123"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNull(resolve.getRequest().getSession(false));
+    }
+
+    @Test
+    void testManagementApiRequiresToken() throws Exception {
+        mockMvc.perform(post("/api/shortlink/generate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"url\":\"https://www.example.com\"}"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/api/shortlink/stats"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testManagementApiWithToken() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/shortlink/generate")
+                        .with(jwt())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"url\":\"https://www.example.com\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNull(result.getRequest().getSession(false));
+    }
+
+    @Test
+    void testSignedToken() throws Exception {
+        String token = signToken(Base64.getDecoder().decode(SECRET));
+
+        mockMvc.perform(get("/api/shortlink/stats")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testTamperedToken() throws Exception {
+        String token = signToken(Base64.getDecoder().decode(SECRET));
+        // 修改载荷而保留原签名
+        String[] parts = token.split("\\.");
+        String tamperedPayload = base64Url("{\"sub\":\"attacker\",\"exp\":4102444800}".getBytes(StandardCharsets.UTF_8));
+        String tampered = parts[0] + "." + tamperedPayload + "." + parts[2];
+
+        mockMvc.perform(get("/api/shortlink/stats")
+                        .header("Authorization", "Bearer " + tampered))
+                .andExpect(status().isUnauthorized());
+
+        // 使用其他密钥签名的令牌
+        String otherKeyToken = signToken("another-secret-another-secret-00".getBytes(StandardCharsets.UTF_8));
+        mockMvc.perform(get("/api/shortlink/stats")
+                        .header("Authorization", "Bearer " + otherKeyToken))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testShortSecretFailsStartup() {
+        String shortSecret = Base64.getEncoder().encodeToString("too-short".getBytes(StandardCharsets.UTF_8));
+
+        // 与应用一样开启全局延迟初始化，密钥校验仍然要在启动时完成
+        new WebApplicationContextRunner()
+                .withInitializer(context -> context.addBeanFactoryPostProcessor(
+                        new LazyInitializationBeanFactoryPostProcessor()))
+                .withUserConfiguration(SecurityConfig.class)
+                .withPropertyValues("shortlink.security.jwt-secret=" + shortSecret)
+                .run(context -> {
+                    Throwable failure = context.getStartupFailure();
+                    assertNotNull(failure);
+                    Throwable cause = failure;
+                    while (cause.getCause() != null) {
+                        cause = cause.getCause();
+                    }
+                    assertInstanceOf(IllegalStateException.class, cause);
+                    assertTrue(cause.getMessage().contains("jwt-secret"));
+                });
+    }
+
+    /**
+     * 生成HS256签名的JWT
+     * @param key 签名密钥
+     * @return JWT字符串
+     */
+    private static String signToken(byte[] key) throws Exception {
+        String header = base64Url("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+        String payload = base64Url("{\"sub\":\"admin\",\"exp\":4102444800}".getBytes(StandardCharsets.UTF_8));
+        String signingInput = header + "." + payload;
+
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(key, "HmacSHA256"));
+        String signature = base64Url(mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII)));
+        return signingInput + "." + signature;
+    }
+
+    private static String base64Url(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,99 @@
+package com.shortlink.controller;
+
+import com.shortlink.cache.HotLinkCache;
+import com.shortlink.click.ClickEventBatch;
+import com.shortlink.click.ClickEventRecorder;
+import com.shortlink.click.ClickEventSink;
+import com.shortlink.store.InMemoryLinkStore;
+import com.shortlink.store.LinkStore;
+import com.shortlink.util.ShortLinkUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 短链接控制器测试
+ */
+class ShortLinkControllerTest {
+
+    private final LinkStore linkStore = new InMemoryLinkStore();
+    private final ShortLinkController controller = new ShortLinkController(
+            linkStore, new HotLinkCache(100), new ClickEventRecorder(new NoopSink(), 16, 16, 10));
+
+    @Test
+    void testCollisionDoesNotOverwriteExistingLink() {
+        String url = "https://www.example.com/new";
+        String existingUrl = "https://www.example.com/existing";
+        // 让新URL的MD5编码已经被另一个URL占用
+        String collidingCode = ShortLinkUtil.generateShortLinkByMD5(url);
+        assertTrue(linkStore.save(collidingCode, existingUrl));
+
+        Map<String, Object> response = controller.generateShortLink(request(url));
+        String shortLink = (String) response.get("shortLink");
+
+        assertEquals(true, response.get("success"));
+        assertNotEquals(collidingCode, shortLink);
+        assertEquals(collidingCode.length() + 1, shortLink.length());
+        assertEquals(existingUrl, linkStore.find(collidingCode));
+        assertEquals(url, linkStore.find(shortLink));
+        assertEquals(existingUrl, controller.resolveShortLink(collidingCode, null, null).get("originalUrl"));
+        assertEquals(url, controller.resolveShortLink(shortLink, null, null).get("originalUrl"));
+    }
+
+    @Test
+    void testSameUrlReturnsExistingCode() {
+        String url = "https://www.example.com";
+
+        String first = (String) controller.generateShortLink(request(url)).get("shortLink");
+        String second = (String) controller.generateShortLink(request(url)).get("shortLink");
+
+        assertEquals(first, second);
+        assertEquals(url, linkStore.find(first));
+    }
+
+    @Test
+    void testRejectsControlCharacters() {
+        Map<String, Object> response = controller.generateShortLink(
+                request("https://www.example.com\nabc123\thttps://evil.example.com"));
+
+        assertEquals(false, response.get("success"));
+
+        Map<String, Object> batch = new HashMap<>();
+        batch.put("urls", List.of("https://www.example.com", "https://www.example.com\r\n"));
+        assertEquals(false, controller.batchGenerateShortLinks(batch).get("success"));
+    }
+
+    @Test
+    void testCustomLengthOutOfRange() {
+        Map<String, Object> request = new HashMap<>();
+        request.put("url", "https://www.example.com");
+        request.put("length", 12);
+        assertEquals(false, controller.generateCustomLength(request).get("success"));
+
+        request.put("length", 7);
+        Map<String, Object> response = controller.generateCustomLength(request);
+        String shortLink = (String) response.get("shortLink");
+        assertEquals(7, shortLink.length());
+        assertEquals(true, controller.resolveShortLink(shortLink, null, null).get("success"));
+    }
+
+    private static Map<String, String> request(String url) {
+        Map<String, String> request = new HashMap<>();
+        request.put("url", url);
+        return request;
+    }
+
+    private static class NoopSink implements ClickEventSink {
+        @Override
+        public void write(ClickEventBatch batch) {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.shortlink.startup;
+
+import com.shortlink.cache.HotLinkCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 热点快照测试
+ */
+class HotLinkSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSaveAndLoad() {
+        String file = tempDir.resolve("hot-links.snapshot.gz").toString();
+
+        HotLinkCache source = new HotLinkCache(100);
+        for (int i = 0; i < 50; i++) {
+            source.put("code" + i, "https://www.example.com/" + i);
+            for (int j = 0; j < i; j++) {
+                source.get("code" + i);
+            }
+        }
+        HotLinkSnapshot sourceSnapshot = new HotLinkSnapshot(source, null, true, file, 10, "");
+        assertEquals(10, sourceSnapshot.saveSnapshot());
+        assertTrue(Files.exists(Path.of(file)));
+
+        // 新节点启动时加载快照，只包含最热的10个编码
+        HotLinkCache target = new HotLinkCache(100);
+        HotLinkSnapshot targetSnapshot = new HotLinkSnapshot(target, null, true, file, 10, "");
+        assertEquals(10, targetSnapshot.loadSnapshot());
+        assertEquals("https://www.example.com/49", target.get("code49"));
+        assertEquals("https://www.example.com/40", target.get("code40"));
+        assertNull(target.get("code39"));
+    }
+
+    @Test
+    void testControlCharactersNotWritten() {
+        String file = tempDir.resolve("hot-links.snapshot.gz").toString();
+
+        HotLinkCache source = new HotLinkCache(100);
+        source.put("good12", "https://www.example.com");
+        source.put("evil12", "https://www.example.com\nabc123\thttps://evil.example.com");
+        assertEquals(1, new HotLinkSnapshot(source, null, true, file, 10, "").saveSnapshot());
+
+        // 含换行的URL被跳过，不会在加载时变成额外的映射
+        HotLinkCache target = new HotLinkCache(100);
+        assertEquals(1, new HotLinkSnapshot(target, null, true, file, 10, "").loadSnapshot());
+        assertEquals("https://www.example.com", target.get("good12"));
+        assertNull(target.get("abc123"));
+        assertNull(target.get("evil12"));
+    }
+
+    @Test
+    void testDisabled() {
+        String file = tempDir.resolve("hot-links.snapshot.gz").toString();
+        HotLinkSnapshot snapshot = new HotLinkSnapshot(new HotLinkCache(100), null, false, file, 10, "");
+
+        assertEquals(0, snapshot.loadSnapshot());
+    }
+}
@@ -0,0 +1,180 @@
+package com.shortlink.util;
+
+import com.shortlink.store.InMemoryCodeSpaceStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 编码空间管理器测试
+ */
+@SpringBootTest
+class CodeSpaceManagerTest {
+
+    @AfterEach
+    void tearDown() {
+        CodeSpaceManager.reset();
+    }
+
+    @Test
+    void testDefaultLength() {
+        CodeSpaceManager.reset();
+
+        assertEquals(6, CodeSpaceManager.getCurrentLength());
+        assertTrue(CodeSpaceManager.isActiveLength(6));
+        assertFalse(CodeSpaceManager.isActiveLength(7));
+        assertTrue(CodeSpaceManager.isManagedLength(8));
+        assertFalse(CodeSpaceManager.isManagedLength(5));
+        assertFalse(CodeSpaceManager.isManagedLength(9));
+    }
+
+    @Test
+    void testRecordAllocationCountsDistinctCodes() {
+        CodeSpaceManager.reset();
+
+        CodeSpaceManager.recordAllocation("abc123");
+        CodeSpaceManager.recordAllocation("abc124");
+        CodeSpaceManager.recordAllocation("abc1234");
+        // 同一URL重复生成的相同编码不增加占用
+        CodeSpaceManager.recordAllocation("abc123");
+        CodeSpaceManager.recordAllocation("abc"); // 不在管理范围内
+        CodeSpaceManager.refresh();
+
+        assertEquals(2, CodeSpaceManager.getOccupancy(6));
+        assertEquals(1, CodeSpaceManager.getOccupancy(7));
+        assertEquals(0, CodeSpaceManager.getOccupancy(3));
+    }
+
+    @Test
+    void testInMemoryStoreEstimatesLargeCardinality() {
+        InMemoryCodeSpaceStore store = new InMemoryCodeSpaceStore();
+        int codes = 200_000;
+        for (int i = 0; i < codes; i++) {
+            store.addCode(6, "c" + i);
+            store.addCode(6, "c" + i); // 重复记录
+        }
+
+        // HyperLogLog误差约0.81%，这里允许3%
+        assertEquals(codes, store.getOccupancy(6), codes * 0.03);
+    }
+
+    @Test
+    void testPromotionOnRefresh() {
+        CodeSpaceManager.reset();
+        // 阈值约为6位空间中10个编码的占用率
+        CodeSpaceManager.setPromotionThreshold(10.0 / CodeSpaceManager.getCapacity(6));
+
+        for (int i = 0; i < 9; i++) {
+            CodeSpaceManager.recordAllocation("abc12" + i);
+        }
+        CodeSpaceManager.refresh();
+        assertEquals(6, CodeSpaceManager.getCurrentLength());
+
+        // 升级检查在定期刷新时进行，分配编码本身不访问统计
+        CodeSpaceManager.recordAllocation("abc129");
+        assertEquals(6, CodeSpaceManager.getCurrentLength());
+        CodeSpaceManager.refresh();
+        assertEquals(7, CodeSpaceManager.getCurrentLength());
+        assertTrue(CodeSpaceManager.isActiveLength(7));
+        assertEquals(7, ShortLinkUtil.generateRandomShortLink().length());
+        assertEquals(7, ShortLinkUtil.generateShortLinkByMD5("https://www.example.com").length());
+        assertEquals(7, ShortLinkUtil.generateShortLinkByHash("https://www.example.com").length());
+    }
+
+    @Test
+    void testPromotionSharedThroughStore() {
+        CodeSpaceManager.reset();
+        InMemoryCodeSpaceStore store = new InMemoryCodeSpaceStore();
+        // 其他节点已经升级到8位
+        store.promoteTo(8);
+
+        CodeSpaceManager.setStore(store);
+        assertEquals(8, CodeSpaceManager.getCurrentLength());
+
+        // 升级长度只增不减
+        assertEquals(8, store.promoteTo(7));
+    }
+
+    @Test
+    void testPromotionStopsAtMaxLength() {
+        CodeSpaceManager.reset();
+        CodeSpaceManager.setPromotionThreshold(Double.MIN_VALUE);
+
+        CodeSpaceManager.recordAllocation("abc123");
+        CodeSpaceManager.recordAllocation("abc1234");
+        CodeSpaceManager.recordAllocation("abc12345");
+        CodeSpaceManager.refresh();
+
+        assertEquals(CodeSpaceManager.MAX_LENGTH, CodeSpaceManager.getCurrentLength());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> CodeSpaceManager.setPromotionThreshold(0));
+        assertThrows(IllegalArgumentException.class, () -> CodeSpaceManager.setPromotionThreshold(1.5));
+    }
+
+    @Test
+    void testStats() {
+        CodeSpaceManager.reset();
+        assertEquals(-1, CodeSpaceManager.getProjectedSecondsToPromotion());
+
+        CodeSpaceManager.recordAllocation("abc123");
+        CodeSpaceManager.refresh();
+        Map<String, Object> stats = CodeSpaceManager.getStats();
+
+        assertEquals(6, stats.get("currentLength"));
+        assertNotNull(stats.get("lengths"));
+        assertTrue(CodeSpaceManager.getProjectedSecondsToPromotion() >= 0);
+    }
+
+    @Test
+    void testStoreUnavailable() {
+        CodeSpaceManager.reset();
+        FlakyStore store = new FlakyStore();
+        CodeSpaceManager.setStore(store);
+        CodeSpaceManager.recordAllocation("abc123");
+        CodeSpaceManager.refresh();
+
+        // 存储不可用时分配和统计都不抛出异常，继续使用最近一次刷新的结果
+        store.available = false;
+        CodeSpaceManager.recordAllocation("abc124");
+        CodeSpaceManager.refresh();
+        Map<String, Object> stats = CodeSpaceManager.getStats();
+
+        assertEquals(6, stats.get("currentLength"));
+        assertEquals(1, CodeSpaceManager.getOccupancy(6));
+    }
+
+    private static class FlakyStore extends InMemoryCodeSpaceStore {
+        private volatile boolean available = true;
+
+        @Override
+        public void addCode(int length, String shortCode) {
+            check();
+            super.addCode(length, shortCode);
+        }
+
+        @Override
+        public long getOccupancy(int length) {
+            check();
+            return super.getOccupancy(length);
+        }
+
+        @Override
+        public int getPromotedLength() {
+            check();
+            return super.getPromotedLength();
+        }
+
+        private void check() {
+            if (!available) {
+                throw new IllegalStateException("store unavailable");
+            }
+        }
+    }
+}
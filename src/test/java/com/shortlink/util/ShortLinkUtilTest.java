@@ -46,6 +46,30 @@ class ShortLinkUtilTest {
         assertEquals(shortLink, shortLink2);
     }
 
+    @Test
+    void testGenerateLongerShortLinkByHash() {
+        // 7位、8位哈希编码的末尾字符也应来自哈希值，而不是固定填充
+        java.util.Set<String> suffixes7 = new java.util.HashSet<>();
+        java.util.Set<String> suffixes8 = new java.util.HashSet<>();
+        
+        for (int i = 0; i < 100; i++) {
+            String url = "https://www.example.com/hash/" + i;
+            String shortLink7 = ShortLinkUtil.generateShortLinkByHash(url, 7);
+            String shortLink8 = ShortLinkUtil.generateShortLinkByHash(url, 8);
+            
+            assertEquals(7, shortLink7.length());
+            assertEquals(8, shortLink8.length());
+            assertTrue(ShortLinkUtil.isValidShortLink(shortLink7));
+            assertTrue(ShortLinkUtil.isValidShortLink(shortLink8));
+            
+            suffixes7.add(shortLink7.substring(5));
+            suffixes8.add(shortLink8.substring(6));
+        }
+        
+        assertTrue(suffixes7.size() > 50, "7位哈希编码末尾字符区分度过低: " + suffixes7.size());
+        assertTrue(suffixes8.size() > 50, "8位哈希编码末尾字符区分度过低: " + suffixes8.size());
+    }
+
     @Test
     void testGenerateRandomShortLink() {
         String shortLink = ShortLinkUtil.generateRandomShortLink();
@@ -67,12 +91,15 @@ class ShortLinkUtilTest {
         assertTrue(ShortLinkUtil.isValidShortLink("ABCdef"));
         assertTrue(ShortLinkUtil.isValidShortLink("123456"));
         assertTrue(ShortLinkUtil.isValidShortLink("aBcDeF"));
+        // 升级后的7位、8位编码同样有效
+        assertTrue(ShortLinkUtil.isValidShortLink("abc1234"));
+        assertTrue(ShortLinkUtil.isValidShortLink("abc12345"));
         
         // 无效短链接
         assertFalse(ShortLinkUtil.isValidShortLink(null));
         assertFalse(ShortLinkUtil.isValidShortLink(""));
         assertFalse(ShortLinkUtil.isValidShortLink("abc12")); // 长度不足
-        assertFalse(ShortLinkUtil.isValidShortLink("abc1234")); // 长度过长
+        assertFalse(ShortLinkUtil.isValidShortLink("abc123456")); // 长度过长
         assertFalse(ShortLinkUtil.isValidShortLink("abc-12")); // 包含非法字符
         assertFalse(ShortLinkUtil.isValidShortLink("abc 12")); // 包含空格
         assertFalse(ShortLinkUtil.isValidShortLink("abc@12")); // 包含特殊字符